@@ -0,0 +1,140 @@
+package calendarapp;
+
+import java.io.*;
+import java.time.*;
+import java.util.*;
+
+// Text rendering for the calendar views. Each view makes a single pass over the
+// events it is given and writes to any Appendable, flushing once at the end,
+// so the same output can go to the console, a file or a network response.
+public class CalendarRenderer {
+
+    // A view that renders into an Appendable (lets callers pick the target)
+    public interface View {
+        void render(Appendable out) throws IOException;
+    }
+
+    // Render a view to System.out with one buffered write
+    public static void print(View view) {
+        StringBuilder sb = new StringBuilder(1024);
+        try {
+            view.render(sb);
+        } catch (IOException ex) {
+            sb.append("Render failed: ").append(ex.getMessage()).append('\n');
+        }
+        System.out.print(sb);
+        System.out.flush();
+    }
+
+    public static void renderDailyList(Appendable out, LocalDate date, Iterable<Event> events) throws IOException {
+        out.append("=== ").append(date.toString()).append(" ===\n");
+        boolean found = false;
+        for (Event e : events) {
+            if (e.getStart().toLocalDate().equals(date)) {
+                appendTitleAndTime(out, e).append('\n');
+                found = true;
+            }
+        }
+        if (!found) out.append("No events\n");
+        flush(out);
+    }
+
+    public static void renderWeeklyList(Appendable out, LocalDate startDate, Iterable<Event> events) throws IOException {
+        // bucket the week's events by day in one pass
+        List<List<Event>> days = new ArrayList<>(7);
+        for (int i = 0; i < 7; i++) days.add(new ArrayList<>());
+        LocalDate endDate = startDate.plusDays(7);
+        for (Event e : events) {
+            LocalDate d = e.getStart().toLocalDate();
+            if (!d.isBefore(startDate) && d.isBefore(endDate)) {
+                days.get((int) (d.toEpochDay() - startDate.toEpochDay())).add(e);
+            }
+        }
+
+        out.append("=== Week of ").append(startDate.toString()).append(" ===\n");
+        for (int i = 0; i < 7; i++) {
+            LocalDate day = startDate.plusDays(i);
+            out.append(day.getDayOfWeek().toString(), 0, 3).append(' ');
+            appendTwoDigits(out, day.getDayOfMonth()).append(": ");
+            if (days.get(i).isEmpty()) out.append("No events");
+            for (Event e : days.get(i)) appendTitleAndTime(out, e);
+            out.append('\n');
+        }
+        flush(out);
+    }
+
+    public static void renderMonthlyList(Appendable out, YearMonth month, Iterable<Event> events) throws IOException {
+        out.append("=== ").append(month.toString()).append(" ===\n");
+        boolean found = false;
+        for (Event e : events) {
+            if (YearMonth.from(e.getStart()).equals(month)) {
+                out.append(e.getStart().toLocalDate().toString()).append(": ");
+                appendTitleAndTime(out, e).append('\n');
+                found = true;
+            }
+        }
+        if (!found) out.append("No events\n");
+        flush(out);
+    }
+
+    public static void renderMonthGrid(Appendable out, YearMonth month, Iterable<Event> events) throws IOException {
+        List<Event> inMonth = new ArrayList<>();
+        for (Event e : events) {
+            if (YearMonth.from(e.getStart()).equals(month)) inMonth.add(e);
+        }
+        writeMonthGrid(out, month, inMonth);
+        flush(out);
+    }
+
+    // Render all twelve month grids of a year, bucketing the events by month in one pass
+    public static void renderYear(Appendable out, int year, Iterable<Event> events) throws IOException {
+        List<List<Event>> months = new ArrayList<>(12);
+        for (int i = 0; i < 12; i++) months.add(new ArrayList<>());
+        for (Event e : events) {
+            if (e.getStart().getYear() == year) months.get(e.getStart().getMonthValue() - 1).add(e);
+        }
+        for (int i = 0; i < 12; i++) {
+            writeMonthGrid(out, YearMonth.of(year, i + 1), months.get(i));
+            out.append('\n');
+        }
+        flush(out);
+    }
+
+    // inMonth must only contain events starting in the given month
+    private static void writeMonthGrid(Appendable out, YearMonth month, List<Event> inMonth) throws IOException {
+        int daysInMonth = month.lengthOfMonth();
+        boolean[] hasEvent = new boolean[daysInMonth + 1];
+        for (Event e : inMonth) hasEvent[e.getStart().getDayOfMonth()] = true;
+
+        out.append(month.getMonth().toString(), 0, 3).append(' ').append(String.valueOf(month.getYear())).append('\n');
+        out.append("Su Mo Tu We Th Fr Sa\n");
+
+        int startDay = month.atDay(1).getDayOfWeek().getValue() % 7;
+        for (int i = 0; i < startDay; i++) out.append("   ");
+
+        for (int day = 1; day <= daysInMonth; day++) {
+            out.append(String.valueOf(day)).append(hasEvent[day] ? '*' : ' ');
+            out.append((day + startDay) % 7 == 0 ? '\n' : ' ');
+        }
+        out.append("\n\n");
+
+        // Event details
+        for (Event e : inMonth) {
+            out.append("* ").append(String.valueOf(e.getStart().getDayOfMonth())).append(": ");
+            appendTitleAndTime(out, e).append('\n');
+        }
+    }
+
+    private static Appendable appendTitleAndTime(Appendable out, Event e) throws IOException {
+        return out.append(e.getTitle()).append(" (").append(e.getStart().toLocalTime().toString()).append(')');
+    }
+
+    private static Appendable appendTwoDigits(Appendable out, int value) throws IOException {
+        if (value < 10) out.append('0');
+        return out.append(String.valueOf(value));
+    }
+
+    private static void flush(Appendable out) throws IOException {
+        if (out instanceof Flushable f) f.flush();
+    }
+}
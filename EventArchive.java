@@ -0,0 +1,323 @@
+package calendarapp;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.*;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+// Read-only cold tier for past events.
+// Binary file of records sorted by (start, id), followed by a sparse time index
+// (one entry per INDEX_INTERVAL records), the stats aggregates and a fixed-size footer:
+//   [records...][index: (startSeconds, offset) * n][recurringCount, count per weekday * 7]
+//   [count, maxId, maxDurationSeconds, indexCount, indexOffset]
+// maxId covers series IDs as well as event IDs, since both come from EventManager's ID counter.
+// Only the index and aggregates are kept in memory; range queries seek straight to the
+// right block and stats never read the records.
+public class EventArchive {
+
+    public static final String DEFAULT_PATH = "data/archive.dat";
+    private static final int INDEX_INTERVAL = 64;
+    private static final int FOOTER_SIZE = 4 + 4 + 8 + 4 + 8;
+    private static final int STATS_SIZE = 4 + 7 * 4;
+    // Stored in place of a null string, so null and "" read back as written (like %00 in SeriesCodec).
+    // Files written before this stored null as "" and still read that way.
+    private static final String NULL_TEXT = "\u0000";
+
+    // Archive sort order; also used by EventManager's time index
+    public static final Comparator<Event> BY_START_THEN_ID =
+            Comparator.comparing(Event::getStart).thenComparingInt(Event::getEventId);
+
+    private final File file;
+    private int count;
+    private int maxId;
+    private long maxDurationSeconds;
+    private int recurringCount;
+    private int[] dayCounts = new int[7]; // indexed by DayOfWeek.ordinal()
+    private long[] indexStarts = new long[0];
+    private long[] indexOffsets = new long[0];
+
+    public EventArchive(String path) {
+        this.file = new File(path);
+        loadIndex();
+    }
+
+    public File getFile() { return file; }
+    public int size() { return count; }
+    public int getMaxId() { return maxId; }
+    public Duration getMaxDuration() { return Duration.ofSeconds(maxDurationSeconds); }
+    public int getRecurringCount() { return recurringCount; }
+    public int getDayCount(DayOfWeek day) { return dayCounts[day.ordinal()]; }
+
+    // Events whose start is in [fromStart, toStart), in (start, id) order
+    public List<Event> query(LocalDateTime fromStart, LocalDateTime toStart) {
+        List<Event> results = new ArrayList<>();
+        scan(fromStart, Integer.MIN_VALUE, toStart, e -> true, Integer.MAX_VALUE, results);
+        return results;
+    }
+
+    // Append up to limit matching events that sort after (afterStart, afterId) and start before toStart.
+    // Read errors are thrown as UncheckedIOException rather than returning a partial result.
+    public void scan(LocalDateTime afterStart, int afterId, LocalDateTime toStart,
+                     Predicate<Event> filter, int limit, List<Event> out) {
+        if (count == 0 || limit <= 0) return;
+        long from = seconds(afterStart);
+        long to = seconds(toStart);
+
+        // last index block starting strictly before the lower bound
+        int block = Arrays.binarySearch(indexStarts, from);
+        if (block < 0) block = -block - 1;
+        while (block > 0 && indexStarts[block - 1] >= from) block--;
+        block = Math.max(block - 1, 0);
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(indexOffsets[block]);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(raf.getFD())));
+            int added = 0;
+            for (int i = block * INDEX_INTERVAL; i < count && added < limit; i++) {
+                long start = in.readLong();
+                int id = in.readInt();
+                if (start >= to) break;
+                boolean after = start > from || (start == from && id > afterId);
+                if (!after) {
+                    skipRest(in);
+                    continue;
+                }
+                Event e = readRest(in, id, start);
+                if (filter.test(e)) {
+                    out.add(e);
+                    added++;
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Archive read failed: " + ex.getMessage(), ex);
+        }
+    }
+
+    // Stream every archived event in (start, id) order; read errors as in scan
+    public void forEach(Consumer<Event> action) {
+        if (count == 0) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            for (int i = 0; i < count; i++) {
+                long start = in.readLong();
+                int id = in.readInt();
+                action.accept(readRest(in, id, start));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Archive read failed: " + ex.getMessage(), ex);
+        }
+    }
+
+    // Merge newly archived events into the file. The existing records are streamed,
+    // so only the new events are held in memory. The file is replaced atomically.
+    // An existing record with the same ID as a new one is replaced, so archiving an
+    // event twice (e.g. after a crash before the hot file was rewritten) keeps one copy.
+    public void add(List<Event> archived) throws IOException {
+        if (archived.isEmpty()) return;
+        List<Event> incoming = new ArrayList<>(archived);
+        incoming.sort(BY_START_THEN_ID);
+        Set<Integer> incomingIds = new HashSet<>();
+        for (Event e : incoming) incomingIds.add(e.getEventId());
+
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) parent.mkdirs();
+        File tmp = new File(file.getPath() + ".tmp");
+
+        List<long[]> index = new ArrayList<>();
+        int written = 0;
+        int newMaxId = 0;
+        long newMaxDuration = 0;
+        int newRecurring = 0;
+        int[] newDays = new int[7];
+
+        try (DataInputStream in = count == 0 ? null
+                     : new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+             CountingOutputStream counter = new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+             DataOutputStream out = new DataOutputStream(counter)) {
+
+            int remaining = count;
+            Event existing = remaining > 0 ? readRecord(in) : null;
+            int next = 0;
+            while (existing != null || next < incoming.size()) {
+                Event e;
+                if (existing != null && (next >= incoming.size()
+                        || BY_START_THEN_ID.compare(existing, incoming.get(next)) <= 0)) {
+                    e = existing;
+                    existing = --remaining > 0 ? readRecord(in) : null;
+                    if (incomingIds.contains(e.getEventId())) continue; // superseded
+                } else {
+                    e = incoming.get(next++);
+                }
+                if (written % INDEX_INTERVAL == 0) index.add(new long[]{seconds(e.getStart()), counter.count});
+                writeRecord(out, e);
+                written++;
+                newMaxId = Math.max(newMaxId, Math.max(e.getEventId(), e.getSeriesId()));
+                newMaxDuration = Math.max(newMaxDuration, Duration.between(e.getStart(), e.getEnd()).getSeconds());
+                if (e.isRecurring()) newRecurring++;
+                newDays[e.getStart().getDayOfWeek().ordinal()]++;
+            }
+
+            long indexOffset = counter.count;
+            for (long[] entry : index) {
+                out.writeLong(entry[0]);
+                out.writeLong(entry[1]);
+            }
+            out.writeInt(newRecurring);
+            for (int n : newDays) out.writeInt(n);
+            out.writeInt(written);
+            out.writeInt(newMaxId);
+            out.writeLong(newMaxDuration);
+            out.writeInt(index.size());
+            out.writeLong(indexOffset);
+        }
+
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        loadIndex();
+    }
+
+    public void clear() {
+        if (file.exists() && !file.delete()) System.out.println("Could not delete archive " + file);
+        loadIndex();
+    }
+
+    private void loadIndex() {
+        count = 0;
+        maxId = 0;
+        maxDurationSeconds = 0;
+        recurringCount = 0;
+        dayCounts = new int[7];
+        indexStarts = new long[0];
+        indexOffsets = new long[0];
+        if (!file.exists() || file.length() < FOOTER_SIZE) return;
+
+        boolean hasStats;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(raf.length() - FOOTER_SIZE);
+            int n = raf.readInt();
+            int max = raf.readInt();
+            long maxDuration = raf.readLong();
+            int indexCount = raf.readInt();
+            long indexOffset = raf.readLong();
+
+            long[] starts = new long[indexCount];
+            long[] offsets = new long[indexCount];
+            raf.seek(indexOffset);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(raf.getFD())));
+            for (int i = 0; i < indexCount; i++) {
+                starts[i] = in.readLong();
+                offsets[i] = in.readLong();
+            }
+            // files written before the aggregates existed go straight from index to footer
+            hasStats = indexOffset + 16L * indexCount + STATS_SIZE + FOOTER_SIZE == raf.length();
+            if (hasStats) {
+                recurringCount = in.readInt();
+                for (int i = 0; i < 7; i++) dayCounts[i] = in.readInt();
+            }
+            count = n;
+            maxId = max;
+            maxDurationSeconds = maxDuration;
+            indexStarts = starts;
+            indexOffsets = offsets;
+        } catch (IOException ex) {
+            System.out.println("Archive index load failed: " + ex.getMessage());
+            return;
+        }
+        if (!hasStats) {
+            // one-off scan; the aggregates are written with the next add
+            try {
+                forEach(e -> {
+                    if (e.isRecurring()) recurringCount++;
+                    dayCounts[e.getStart().getDayOfWeek().ordinal()]++;
+                });
+            } catch (UncheckedIOException ex) {
+                System.out.println(ex.getMessage() + ", archive stats are incomplete");
+            }
+        }
+    }
+
+    // Record layout: start, id, end, recurring, type, count, seriesId, reminder, title, description
+    private static void writeRecord(DataOutputStream out, Event e) throws IOException {
+        out.writeLong(seconds(e.getStart()));
+        out.writeInt(e.getEventId());
+        out.writeLong(seconds(e.getEnd()));
+        out.writeBoolean(e.isRecurring());
+        writeText(out, e.getRecurrenceType());
+        out.writeInt(e.getRecurrenceCount());
+        out.writeInt(e.getSeriesId());
+        out.writeInt(e.getReminderMinutes());
+        writeText(out, e.getTitle());
+        writeText(out, e.getDescription());
+    }
+
+    private static void writeText(DataOutputStream out, String text) throws IOException {
+        out.writeUTF(text == null ? NULL_TEXT : text);
+    }
+
+    private static String readText(DataInputStream in) throws IOException {
+        String text = in.readUTF();
+        return text.equals(NULL_TEXT) ? null : text;
+    }
+
+    private static Event readRecord(DataInputStream in) throws IOException {
+        long start = in.readLong();
+        int id = in.readInt();
+        return readRest(in, id, start);
+    }
+
+    private static Event readRest(DataInputStream in, int id, long start) throws IOException {
+        long end = in.readLong();
+        boolean recurring = in.readBoolean();
+        String type = readText(in);
+        int recurrenceCount = in.readInt();
+        int seriesId = in.readInt();
+        int reminder = in.readInt();
+        String title = readText(in);
+        String desc = readText(in);
+
+        Event e = new Event(id, title, desc, time(start), time(end));
+        e.setRecurring(recurring);
+        e.setRecurrenceType(type);
+        e.setRecurrenceCount(recurrenceCount);
+        e.setSeriesId(seriesId);
+        e.setReminderMinutes(reminder);
+        return e;
+    }
+
+    private static void skipRest(DataInputStream in) throws IOException {
+        in.skipNBytes(8 + 1);
+        in.skipNBytes(in.readUnsignedShort());
+        in.skipNBytes(4 + 4 + 4);
+        in.skipNBytes(in.readUnsignedShort());
+        in.skipNBytes(in.readUnsignedShort());
+    }
+
+    // LocalDateTime <-> seconds; UTC is only an encoding here, no zone conversion happens
+    private static long seconds(LocalDateTime t) {
+        return t.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime time(long seconds) {
+        return LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+
+    // Tracks the byte offset of each record while writing
+    private static class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out) { super(out); }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
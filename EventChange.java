@@ -0,0 +1,15 @@
+package calendarapp;
+
+import java.util.List;
+
+// A single change published by EventManager's change feed.
+// event is a copy taken when the change was made, so later edits don't show through
+// (null for BULK_RESTORED, where consumers should reload).
+public record EventChange(Type type, Event event) {
+
+    public enum Type { CREATED, UPDATED, DELETED, SERIES_UPDATED, BULK_RESTORED, ARCHIVED }
+
+    // Changes made by one EventManager operation, delivered together.
+    // Sequence numbers are consecutive; a gap means this subscriber fell behind and items were dropped.
+    public record Batch(long sequence, List<EventChange> changes) { }
+}
@@ -0,0 +1,47 @@
+package calendarapp;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Publishes EventManager changes to subscribers with bounded, per-subscriber buffers.
+// Publishing never blocks: when a subscriber's buffer is full the batch is dropped for
+// that subscriber only, and it sees a gap in the batch sequence numbers and should resync.
+public class EventChangeFeed implements Flow.Publisher<EventChange.Batch> {
+
+    public static final int BUFFER_SIZE = 256;
+
+    private final SubmissionPublisher<EventChange.Batch> publisher =
+            new SubmissionPublisher<>(ForkJoinPool.commonPool(), BUFFER_SIZE);
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super EventChange.Batch> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    public boolean hasSubscribers() {
+        return publisher.hasSubscribers();
+    }
+
+    public void publish(List<EventChange> changes) {
+        if (changes.isEmpty()) return;
+        EventChange.Batch batch = new EventChange.Batch(sequence.incrementAndGet(), List.copyOf(changes));
+        publisher.offer(batch, (subscriber, item) -> {
+            dropped.incrementAndGet();
+            return false; // don't retry, the subscriber resyncs on the sequence gap
+        });
+    }
+
+    public long getSequence() { return sequence.get(); }
+    public long getDroppedCount() { return dropped.get(); }
+
+    public boolean isClosed() {
+        return publisher.isClosed();
+    }
+
+    public void close() {
+        publisher.close();
+    }
+}
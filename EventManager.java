@@ -1,29 +1,100 @@
 Eventmanager- package calendarapp;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.time.*;
 import java.util.*;
+import java.util.function.Consumer;
 
+// Public methods are synchronized so the manager can be shared between threads
+// (GUI, reminder timer, load generator). getEvents() returns a snapshot, so callers
+// can iterate it while other threads keep changing the calendar.
 public class EventManager {
 
-    private List<Event> events;
+    // Events that ended more than this many days ago move to the archive tier
+    // (override with -Dcalendar.archiveDays=N, 0 disables archiving)
+    public static final int DEFAULT_ARCHIVE_DAYS = 90;
+
+    public static final String DEFAULT_DATA_FILE = "data/event.csv";
+
+    private List<Event> events; // hot tier: recent and future events
+    private final TreeSet<Event> timeIndex = new TreeSet<>(EventArchive.BY_START_THEN_ID); // hot events by (start, id)
     private int nextEventId;
+    private long modificationVersion; // bumped on every mutation
+    private final QueryCache queryCache = new QueryCache();
+    private final EventChangeFeed changeFeed = new EventChangeFeed();
+    private final List<EventChange> pendingChanges = new ArrayList<>(); // published at the end of each operation
+    private final String dataFile; // hot tier on disk
+    private final EventArchive archive; // cold tier
+    private final int archiveHorizonDays = Integer.getInteger("calendar.archiveDays", DEFAULT_ARCHIVE_DAYS);
+    private LocalDate lastArchiveRun;
+    private boolean compactOnDisk; // dataFile is in the SeriesCodec format, so single events can be appended
 
     public EventManager() {
-        events = FileManager.readEvents(); // load events from CSV if exists
+        this(DEFAULT_DATA_FILE, EventArchive.DEFAULT_PATH);
+    }
+
+    // Keep the calendar somewhere other than data/ (tests, load runs, several calendars)
+    public EventManager(String dataFile, String archiveFile) {
+        this.dataFile = dataFile;
+        this.archive = new EventArchive(archiveFile);
+        SeriesCodec.Loaded loaded;
+        try {
+            loaded = SeriesCodec.load(dataFile);
+        } catch (IOException ex) {
+            // never start on (and later overwrite) a file we could only partly read
+            throw new IllegalStateException("Cannot load " + dataFile + ", fix or restore it first: " + ex.getMessage(), ex);
+        }
+        // old-format files are read as before and rewritten compactly on the next save;
+        // a repaired file is also rewritten, so nothing is appended after its torn last line
+        compactOnDisk = loaded.status() == SeriesCodec.Status.LOADED;
+        events = loaded.status() == SeriesCodec.Status.LEGACY ? readLegacy(dataFile) : loaded.events();
+        timeIndex.addAll(events);
         nextEventId = getNextEventId();
+        archivePastEvents();
+    }
+
+    // FileManager only knows the default path; other old-format files use the codec's legacy reader
+    private static List<Event> readLegacy(String path) {
+        if (path.equals(DEFAULT_DATA_FILE)) return FileManager.readEvents();
+        List<Event> legacy = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
+            SeriesCodec.read(reader, legacy::add);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Cannot load " + path + ", fix or restore it first: " + ex.getMessage(), ex);
+        }
+        return legacy;
     }
 
     // Create a new single event
-    public void createEvent(String title, String desc, LocalDateTime start, LocalDateTime end) {
+    public synchronized void createEvent(String title, String desc, LocalDateTime start, LocalDateTime end) {
         int id = nextEventId++;
         Event e = new Event(id, title, desc, start, end);
         events.add(e);
-        FileManager.saveEvent(e);
+        timeIndex.add(e);
+        markChanged(start, end);
+        recordChange(EventChange.Type.CREATED, e);
+        appendEvents(List.of(e));
+        publishChanges();
     }
 
     // Add a recurring event (creates all occurrences)
-    public void addRecurringEvent(Event event) {
+    public synchronized void addRecurringEvent(Event event) {
+        int first = events.size();
+        expandSeries(event, events::add);
+        for (Event e : events.subList(first, events.size())) {
+            timeIndex.add(e);
+            markChanged(e.getStart(), e.getEnd());
+            recordChange(EventChange.Type.CREATED, e);
+        }
+        saveAllEvents();
+        publishChanges();
+    }
+
+    // Expand a template into recurrenceCount occurrences, allocating IDs as it goes and
+    // handing each to out as soon as it is made
+    private void expandSeries(Event event, Consumer<Event> out) {
         int seriesId = nextEventId; // first event ID becomes series ID
         LocalDateTime nextStart = event.getStart();
         LocalDateTime nextEnd = event.getEnd();
@@ -35,27 +106,29 @@ public class EventManager {
             e.setRecurrenceCount(event.getRecurrenceCount());
             e.setSeriesId(seriesId);
             e.setReminderMinutes(event.getReminderMinutes());
-            events.add(e);
+            out.accept(e);
 
             // advance start and end for next occurrence
-            switch (event.getRecurrenceType()) {
-                case "DAILY" -> { nextStart = nextStart.plusDays(1); nextEnd = nextEnd.plusDays(1); }
-                case "WEEKLY" -> { nextStart = nextStart.plusWeeks(1); nextEnd = nextEnd.plusWeeks(1); }
-                case "MONTHLY" -> { nextStart = nextStart.plusMonths(1); nextEnd = nextEnd.plusMonths(1); }
-            }
+            nextStart = Recurrence.advance(nextStart, event.getRecurrenceType());
+            nextEnd = Recurrence.advance(nextEnd, event.getRecurrenceType());
         }
-        saveAllEvents();
     }
 
     // Update a single event by ID
-    public void updateEvent(int id, String newTitle, String newDesc, LocalDateTime newStart, LocalDateTime newEnd) {
+    public synchronized void updateEvent(int id, String newTitle, String newDesc, LocalDateTime newStart, LocalDateTime newEnd) {
         for (Event e : events) {
             if (e.getEventId() == id) {
+                markChanged(e.getStart(), e.getEnd());
+                markChanged(newStart, newEnd);
+                timeIndex.remove(e); // re-keyed below
                 e.setTitle(newTitle);
                 e.setDescription(newDesc);
                 e.setStart(newStart);
                 e.setEnd(newEnd);
+                timeIndex.add(e);
+                recordChange(EventChange.Type.UPDATED, e);
                 saveAllEvents();
+                publishChanges();
                 return;
             }
         }
@@ -63,10 +136,13 @@ public class EventManager {
     }
 
     // Update all events in a recurring series
-    public void updateRecurringEvent(Event event) {
+    public synchronized void updateRecurringEvent(Event event) {
         int seriesId = event.getSeriesId();
         for (Event e : events) {
             if (e.getSeriesId() == seriesId) {
+                markChanged(e.getStart(), e.getEnd());
+                markChanged(event.getStart(), event.getEnd());
+                timeIndex.remove(e); // re-keyed below
                 e.setTitle(event.getTitle());
                 e.setDescription(event.getDescription());
                 e.setStart(event.getStart());
@@ -75,232 +151,457 @@ public class EventManager {
                 e.setRecurrenceType(event.getRecurrenceType());
                 e.setRecurrenceCount(event.getRecurrenceCount());
                 e.setReminderMinutes(event.getReminderMinutes());
+                timeIndex.add(e);
+                recordChange(EventChange.Type.SERIES_UPDATED, e);
             }
         }
         saveAllEvents();
+        publishChanges();
     }
 
     // Delete single event
-    public void deleteEvent(int id) {
-        events.removeIf(e -> e.getEventId() == id);
+    public synchronized void deleteEvent(int id) {
+        events.removeIf(e -> e.getEventId() == id && removed(e));
         saveAllEvents();
+        publishChanges();
     }
 
     // Delete a recurring series
-    public void deleteRecurringEvent(Event event) {
+    public synchronized void deleteRecurringEvent(Event event) {
         if (event.getSeriesId() != 0) {
-            events.removeIf(e -> e.getSeriesId() == event.getSeriesId());
+            events.removeIf(e -> e.getSeriesId() == event.getSeriesId() && removed(e));
         } else {
             deleteEvent(event.getEventId());
         }
         saveAllEvents();
+        publishChanges();
     }
 
     // Delete a single occurrence
-    public void deleteSingleOccurrence(Event event) {
+    public synchronized void deleteSingleOccurrence(Event event) {
         deleteEvent(event.getEventId());
     }
 
     // Conflict check excluding a specific event (for updates)
-    public boolean hasConflictExcludingEvent(LocalDateTime newStart, LocalDateTime newEnd, int excludeId) {
+    public synchronized boolean hasConflictExcludingEvent(LocalDateTime newStart, LocalDateTime newEnd, int excludeId) {
         for (Event e : events) {
             if (e.getEventId() == excludeId) continue;
             if (newStart.isBefore(e.getEnd()) && newEnd.isAfter(e.getStart())) return true;
         }
+        // an archived event can only overlap if it starts at most maxDuration before newStart
+        for (Event e : archive.query(newStart.minus(archive.getMaxDuration()), newEnd)) {
+            if (e.getEventId() == excludeId) continue;
+            if (newStart.isBefore(e.getEnd()) && newEnd.isAfter(e.getStart())) return true;
+        }
         return false;
     }
 
     // Conflict check for new events
-    public boolean hasConflict(LocalDateTime newStart, LocalDateTime newEnd) {
+    public synchronized boolean hasConflict(LocalDateTime newStart, LocalDateTime newEnd) {
         return hasConflictExcludingEvent(newStart, newEnd, -1);
     }
 
-    // Search events by date range
-    public List<Event> searchByDateRange(LocalDate start, LocalDate end) {
-        List<Event> results = new ArrayList<>();
-        for (Event e : events) {
-            LocalDate eventDate = e.getStart().toLocalDate();
-            if (!eventDate.isBefore(start) && !eventDate.isAfter(end)) results.add(e);
+    // Search events by date range across both tiers (cached until an event in the range changes).
+    // An end date before the start date matches nothing.
+    public synchronized List<Event> searchByDateRange(LocalDate start, LocalDate end) {
+        if (end.isBefore(start)) return Collections.emptyList();
+        QueryCache.Key key = new QueryCache.Key("range", start.atStartOfDay(), end.plusDays(1).atStartOfDay());
+        return queryCache.get(key, modificationVersion, () -> {
+            List<Event> results = new ArrayList<>(archive.query(key.from(), key.to()));
+            results.addAll(timeIndex.subSet(probe(key.from(), Integer.MIN_VALUE), probe(key.to(), Integer.MIN_VALUE)));
+            return Collections.unmodifiableList(results);
+        });
+    }
+
+    // Cursor-paginated query over both tiers in (start, id) order. Pass null for the
+    // first page, then the previous page's nextCursor. Each page seeks through the
+    // ordered indexes, so it costs O(log n + page) plus any events skipped by filters.
+    // Throws IllegalArgumentException for a pageSize below 1 or a malformed cursor.
+    public synchronized EventPage queryPage(EventQuery query, String cursor, int pageSize) {
+        if (pageSize < 1) throw new IllegalArgumentException("pageSize must be at least 1: " + pageSize);
+        LocalDateTime afterStart = cursor == null ? query.getFrom() : EventPage.cursorStart(cursor);
+        int afterId = cursor == null ? Integer.MIN_VALUE : EventPage.cursorId(cursor);
+        LocalDateTime to = query.getTo();
+
+        // one extra from each tier tells us whether another page exists
+        List<Event> cold = new ArrayList<>();
+        archive.scan(afterStart, afterId, to, query::test, pageSize + 1, cold);
+        List<Event> hot = new ArrayList<>();
+        for (Event e : timeIndex.tailSet(probe(afterStart, afterId), false)) {
+            if (!e.getStart().isBefore(to) || hot.size() > pageSize) break;
+            if (query.test(e)) hot.add(e);
+        }
+
+        List<Event> page = new ArrayList<>(pageSize);
+        int c = 0, h = 0;
+        while (page.size() < pageSize && (c < cold.size() || h < hot.size())) {
+            if (h >= hot.size() || (c < cold.size() && EventArchive.BY_START_THEN_ID.compare(cold.get(c), hot.get(h)) < 0)) {
+                page.add(cold.get(c++));
+            } else {
+                page.add(hot.get(h++));
+            }
         }
-        return results;
+        boolean more = c < cold.size() || h < hot.size();
+        return new EventPage(page, more && !page.isEmpty() ? EventPage.cursorOf(page.get(page.size() - 1)) : null);
     }
 
-    // Backup events to a CSV file
-    public void backupEvents(String path) {
-        try (PrintWriter writer = new PrintWriter(new FileWriter(path))) {
-            for (Event e : events) {
-                writer.println(e.getEventId() + "," + e.getTitle() + "," + e.getDescription() + "," +
-                               e.getStart() + "," + e.getEnd() + "," + e.isRecurring() + "," +
-                               e.getRecurrenceType() + "," + e.getRecurrenceCount() + "," +
-                               e.getSeriesId() + "," + e.getReminderMinutes());
+    // Both tiers as a stream: the archive file is read record by record, never loaded whole
+    private EventSource allEvents() {
+        return action -> {
+            archive.forEach(action);
+            events.forEach(action);
+        };
+    }
+
+    // Search key for the time index; Integer.MIN_VALUE sorts before every event at that start
+    private static Event probe(LocalDateTime start, int id) {
+        return new Event(id, null, null, start, start);
+    }
+
+    // Backup events (archived and hot) in the series-compact format (see SeriesCodec).
+    // Returns false if either tier couldn't be read or written; no partial backup is left behind.
+    public synchronized boolean backupEvents(String path) {
+        return writeFile(path, "Backup", writer -> SeriesCodec.write(writer, allEvents()));
+    }
+
+    private interface FileWrite {
+        void write(Writer writer) throws IOException;
+    }
+
+    // Write to path.tmp and move it over path only once everything was written. An archive
+    // read error (UncheckedIOException from allEvents) fails the write like any other.
+    private static boolean writeFile(String path, String what, FileWrite body) {
+        File tmp = new File(path + ".tmp");
+        try {
+            try (Writer writer = new BufferedWriter(new FileWriter(tmp))) {
+                body.write(writer);
             }
-        } catch (IOException ex) {
-            System.out.println("Backup failed: " + ex.getMessage());
+            Files.move(tmp.toPath(), new File(path).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (IOException | UncheckedIOException ex) {
+            System.out.println(what + " failed: " + ex.getMessage());
+            tmp.delete();
+            return false;
         }
     }
 
-    // Restore events from a CSV file
-    public void restoreEvents(String path) {
-        events.clear();
-        nextEventId = 1;
+    // Restore events from a backup (either format), replacing everything.
+    // The backup is parsed in full first; if it can't be read, both tiers are left as they were.
+    public synchronized void restoreEvents(String path) {
+        List<Event> restored = new ArrayList<>();
         try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(",");
-                int id = Integer.parseInt(parts[0]);
-                String title = parts[1];
-                String desc = parts[2];
-                LocalDateTime start = LocalDateTime.parse(parts[3]);
-                LocalDateTime end = LocalDateTime.parse(parts[4]);
-                boolean recurring = Boolean.parseBoolean(parts[5]);
-                String recurrenceType = parts[6];
-                int recurrenceCount = Integer.parseInt(parts[7]);
-                int seriesId = Integer.parseInt(parts[8]);
-                int reminderMinutes = Integer.parseInt(parts[9]);
-
-                Event e = new Event(id, title, desc, start, end);
-                e.setRecurring(recurring);
-                e.setRecurrenceType(recurrenceType);
-                e.setRecurrenceCount(recurrenceCount);
-                e.setSeriesId(seriesId);
-                e.setReminderMinutes(reminderMinutes);
-                events.add(e);
-                nextEventId = Math.max(nextEventId, id + 1);
-            }
-        } catch (IOException ex) {
+            SeriesCodec.read(reader, restored::add);
+        } catch (IOException | RuntimeException ex) {
             System.out.println("Restore failed: " + ex.getMessage());
+            return;
         }
+
+        events = restored;
+        timeIndex.clear();
+        timeIndex.addAll(events);
+        archive.clear();
+        nextEventId = getNextEventId();
+        markAllChanged();
+        lastArchiveRun = null; // re-archive old events from the backup
+        saveAllEvents();
+        recordChange(EventChange.Type.BULK_RESTORED, null);
+        publishChanges();
     }
 
-    // Stats
-    public int getTotalEvents() { return events.size(); }
-    public int getRecurringEventCount() { return (int) events.stream().filter(Event::isRecurring).count(); }
-    public String getBusiestDay() {
-        Map<DayOfWeek, Long> map = new HashMap<>();
-        for (Event e : events) {
-            map.put(e.getStart().getDayOfWeek(), map.getOrDefault(e.getStart().getDayOfWeek(), 0L) + 1);
+    // Identity of an event's content for merge deduplication. Series are compared by
+    // their shape rather than seriesId, since IDs are local to the store that made them.
+    private record ContentKey(String title, LocalDateTime start, LocalDateTime end,
+                              String recurrenceType, int recurrenceCount) {
+        static ContentKey of(Event e) {
+            return new ContentKey(e.getTitle(), e.getStart(), e.getEnd(), e.getRecurrenceType(), e.getRecurrenceCount());
         }
-        return map.entrySet().stream().max(Map.Entry.comparingByValue()).map(e -> e.getKey().toString()).orElse("N/A");
     }
 
-    // Utilities
-    public int getNextEventId() {
-        return events.stream().mapToInt(Event::getEventId).max().orElse(0) + 1;
-    }
+    // Restore in merge mode: combine a backup with the current events in linear time.
+    // The backup is streamed and every line is checked against hash sets of the live
+    // content, event IDs and series IDs. Duplicates are skipped, and colliding event IDs
+    // and series IDs each get fresh ones. Everything is applied as one commit: one save
+    // and one change-feed batch. Returns the number of events added, or -1 if the backup
+    // or the archive couldn't be read, in which case nothing is changed.
+    public synchronized int mergeEvents(String path) {
+        Set<ContentKey> seen = new HashSet<>();
+        Set<Integer> usedIds = new HashSet<>();
+        Set<Integer> usedSeries = new HashSet<>();
+        Consumer<Event> register = e -> {
+            seen.add(ContentKey.of(e));
+            usedIds.add(e.getEventId());
+            if (e.getSeriesId() != 0) usedSeries.add(e.getSeriesId());
+        };
+        try {
+            archive.forEach(register);
+        } catch (UncheckedIOException ex) {
+            // without the archived IDs the merge could hand out IDs that are already taken
+            System.out.println("Merge failed: " + ex.getMessage());
+            return -1;
+        }
+        events.forEach(register);
 
-    public List<Event> getEvents() { return events; }
+        List<Event> merged = new ArrayList<>();
+        Map<Integer, Integer> seriesRemap = new HashMap<>(); // backup series ID -> series ID here
+        try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
+            SeriesCodec.read(reader, e -> {
+                if (!seen.add(ContentKey.of(e))) return; // already present
+                if (!usedIds.add(e.getEventId())) e = withId(e, freshId(usedIds, usedSeries));
+                if (e.getSeriesId() != 0) {
+                    e.setSeriesId(seriesRemap.computeIfAbsent(e.getSeriesId(),
+                            id -> usedSeries.add(id) ? id : freshId(usedIds, usedSeries)));
+                }
+                merged.add(e);
+            });
+        } catch (IOException | RuntimeException ex) {
+            System.out.println("Merge failed: " + ex.getMessage());
+            return -1; // nothing has been applied yet
+        }
 
-    // Save all events
-    private void saveAllEvents() { FileManager.saveEvents(events); }
+        for (Event e : merged) nextEventId = Math.max(nextEventId, e.getEventId() + 1);
+        events.addAll(merged);
+        timeIndex.addAll(merged);
+        markAllChanged();
+        lastArchiveRun = null; // archive old events from the backup, as after a restore
+        saveAllEvents();
+        recordChange(EventChange.Type.BULK_RESTORED, null);
+        publishChanges();
+        return merged.size();
+    }
+
+    // Next ID that is neither an event ID nor a series ID, reserved in both sets
+    private int freshId(Set<Integer> usedIds, Set<Integer> usedSeries) {
+        while (usedIds.contains(nextEventId) || usedSeries.contains(nextEventId)) nextEventId++;
+        usedIds.add(nextEventId);
+        usedSeries.add(nextEventId);
+        return nextEventId++;
+    }
+
+    private static Event withId(Event src, int id) {
+        Event e = new Event(id, src.getTitle(), src.getDescription(), src.getStart(), src.getEnd());
+        e.setRecurring(src.isRecurring());
+        e.setRecurrenceType(src.getRecurrenceType());
+        e.setRecurrenceCount(src.getRecurrenceCount());
+        e.setSeriesId(src.getSeriesId());
+        e.setReminderMinutes(src.getReminderMinutes());
+        return e;
+    }
+
+    // Export events to an iCalendar (.ics) file. Returns false if it couldn't be written in full.
+    public synchronized boolean exportICalendar(String path) {
+        return writeFile(path, "Export", writer -> ICalendarHandler.write(writer, allEvents()));
+    }
+
+    // Import an iCalendar (.ics) file, streaming VEVENTs and committing every batchSize occurrences.
+    // RRULEs are expanded lazily into occurrences that share a seriesId, like addRecurringEvent,
+    // so a long series is committed in batches too and memory stays bounded by batchSize.
+    // Malformed VEVENTs are skipped. Returns the number of events committed, which after a
+    // read error includes every batch committed before it.
+    // Batches are appended as one line per occurrence; if any series was imported the file is
+    // rewritten once at the end, so the series are stored compactly (see SeriesCodec).
+    public synchronized int importICalendar(String path, int batchSize) {
+        List<Event> batch = new ArrayList<>();
+        int[] imported = {0};
+        boolean[] hasSeries = {false};
+        Consumer<Event> add = e -> {
+            batch.add(e);
+            if (batch.size() >= batchSize) imported[0] += commitBatch(batch);
+        };
+        try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
+            ICalendarHandler.Result result = ICalendarHandler.read(reader, template -> {
+                if (template.isRecurring()) {
+                    hasSeries[0] = true;
+                    expandSeries(template, add);
+                } else {
+                    Event e = new Event(nextEventId++, template.getTitle(), template.getDescription(), template.getStart(), template.getEnd());
+                    e.setReminderMinutes(template.getReminderMinutes());
+                    add.accept(e);
+                }
+            });
+            if (result.skipped() > 0) System.out.println("Import skipped " + result.skipped() + " malformed VEVENT(s)");
+        } catch (IOException | RuntimeException ex) {
+            System.out.println("Import failed: " + ex.getMessage());
+        }
+        imported[0] += commitBatch(batch); // keep whatever was read before a failure
+        if (hasSeries[0]) writeEvents();
+        return imported[0];
+    }
+
+    // Commit and publish a batch of new events; returns how many were committed
+    private int commitBatch(List<Event> batch) {
+        int size = batch.size();
+        events.addAll(batch);
+        timeIndex.addAll(batch);
+        for (Event e : batch) {
+            markChanged(e.getStart(), e.getEnd());
+            recordChange(EventChange.Type.CREATED, e);
+        }
+        appendEvents(batch);
+        batch.clear();
+        publishChanges();
+        return size;
+    }
+
+    // Stats (both tiers). The archive keeps its aggregates in its footer, so these only scan hot events.
+    public synchronized int getTotalEvents() { return events.size() + archive.size(); }
+    public synchronized int getRecurringEventCount() {
+        return queryCache.get(allTime("recurringCount"), modificationVersion, () ->
+            (int) events.stream().filter(Event::isRecurring).count() + archive.getRecurringCount());
+    }
+    public synchronized String getBusiestDay() {
+        return queryCache.get(allTime("busiestDay"), modificationVersion, () -> {
+            Map<DayOfWeek, Long> map = new HashMap<>();
+            for (DayOfWeek day : DayOfWeek.values()) {
+                if (archive.getDayCount(day) > 0) map.put(day, (long) archive.getDayCount(day));
+            }
+            for (Event e : events) {
+                map.put(e.getStart().getDayOfWeek(), map.getOrDefault(e.getStart().getDayOfWeek(), 0L) + 1);
+            }
+            return map.entrySet().stream().max(Map.Entry.comparingByValue()).map(e -> e.getKey().toString()).orElse("N/A");
+        });
+    }
 
-    
-public void viewAllEvents() {
-    System.out.println("=== All Events ===");
-    for (Event e : events) {
-        System.out.println(e.getEventId() + ": " + e.getTitle() +
-                " (" + e.getStart() + " to " + e.getEnd() + ")");
+    // Utilities
+    // Series IDs count too: a merged series can hold an ID no event has, and
+    // addRecurringEvent must never hand that ID out again as a new series ID
+    public synchronized int getNextEventId() {
+        int hotMax = events.stream().mapToInt(e -> Math.max(e.getEventId(), e.getSeriesId())).max().orElse(0);
+        return Math.max(hotMax, archive.getMaxId()) + 1;
     }
-}
-public void viewWeeklyList(LocalDate startDate) {
-    System.out.println("=== Week of " + startDate + " ===");
 
-    for (int i = 0; i < 7; i++) {
-        LocalDate day = startDate.plusDays(i);
-        DayOfWeek dow = day.getDayOfWeek();
-        boolean found = false;
+    // Snapshot of the hot events; archived events are reached through searchByDateRange and the views
+    public synchronized List<Event> getEvents() { return new ArrayList<>(events); }
+    public EventArchive getArchive() { return archive; }
+    public String getDataFile() { return dataFile; }
 
-        System.out.print(dow.toString().substring(0, 3) + " " +
-                String.format("%02d", day.getDayOfMonth()) + ": ");
+    // Save all events (the hot tier), archiving old events first at most once a day
+    private void saveAllEvents() {
+        if (!LocalDate.now().equals(lastArchiveRun)) moveToArchive();
+        writeEvents();
+    }
 
-        for (Event e : events) {
-            if (e.getStart().toLocalDate().equals(day)) {
-                System.out.print(e.getTitle() +
-                        " (" + e.getStart().toLocalTime() + ")");
-                found = true;
-            }
+    // Rewrite dataFile in the series-compact format
+    private void writeEvents() {
+        try {
+            SeriesCodec.save(dataFile, events);
+            compactOnDisk = true;
+        } catch (IOException ex) {
+            System.out.println("Save failed: " + ex.getMessage());
         }
-
-        if (!found) System.out.print("No events");
-        System.out.println();
     }
-}
-public void viewDailyList(LocalDate date) {
-    System.out.println("=== " + date + " ===");
-    boolean found = false;
 
-    for (Event e : events) {
-        if (e.getStart().toLocalDate().equals(date)) {
-            System.out.println(
-                e.getTitle() + " (" + e.getStart().toLocalTime() + ")"
-            );
-            found = true;
+    // Append new events without rewriting the file (falls back to a full save for old-format files)
+    private void appendEvents(List<Event> added) {
+        if (!compactOnDisk) {
+            writeEvents();
+            return;
+        }
+        try (Writer out = new BufferedWriter(new FileWriter(dataFile, true))) {
+            SeriesCodec.writeEvents(out, added);
+        } catch (IOException ex) {
+            System.out.println("Save failed: " + ex.getMessage());
         }
     }
 
-    if (!found) System.out.println("No events");
-}
-public void viewMonthlyList(YearMonth month) {
-    System.out.println("=== " + month + " ===");
+    // Move events that ended before the archive horizon into the archive tier
+    public synchronized int archivePastEvents() {
+        int moved = moveToArchive();
+        if (moved > 0) writeEvents();
+        publishChanges();
+        return moved;
+    }
 
-    boolean found = false;
-    for (Event e : events) {
-        if (YearMonth.from(e.getStart()).equals(month)) {
-            System.out.println(
-                e.getStart().toLocalDate() + ": " +
-                e.getTitle() + " (" + e.getStart().toLocalTime() + ")"
-            );
-            found = true;
+    // Range queries read both tiers, so moving events doesn't change any cached result.
+    // The archive is written before the hot file; if we stop in between, the events are
+    // archived again on the next start and EventArchive.add keeps a single copy.
+    private int moveToArchive() {
+        lastArchiveRun = LocalDate.now();
+        if (archiveHorizonDays <= 0) return 0;
+        LocalDateTime cutoff = lastArchiveRun.minusDays(archiveHorizonDays).atStartOfDay();
+        List<Event> old = new ArrayList<>();
+        for (Event e : events) {
+            if (e.getEnd().isBefore(cutoff)) old.add(e);
+        }
+        if (old.isEmpty()) return 0;
+        try {
+            archive.add(old);
+        } catch (IOException ex) {
+            System.out.println("Archive failed: " + ex.getMessage());
+            return 0;
         }
+        events.removeIf(e -> e.getEnd().isBefore(cutoff));
+        timeIndex.removeAll(old);
+        for (Event e : old) recordChange(EventChange.Type.ARCHIVED, e);
+        return old.size();
     }
 
-    if (!found) System.out.println("No events");
-}
-public void viewCalendarMonthCLI(YearMonth month) {
-    System.out.println(month.getMonth().toString().substring(0, 3) +
-            " " + month.getYear());
-    System.out.println("Su Mo Tu We Th Fr Sa");
+    // Query cache bookkeeping: a mutation evicts only the cached windows its span overlaps
+    private void markChanged(LocalDateTime start, LocalDateTime end) {
+        queryCache.invalidate(start, end, ++modificationVersion);
+    }
 
-    LocalDate firstDay = month.atDay(1);
-    int startDay = firstDay.getDayOfWeek().getValue() % 7;
-    int daysInMonth = month.lengthOfMonth();
+    // Bookkeeping for a removed event; returns true so it can be used inside removeIf predicates
+    private boolean removed(Event e) {
+        timeIndex.remove(e);
+        markChanged(e.getStart(), e.getEnd());
+        recordChange(EventChange.Type.DELETED, e);
+        return true;
+    }
 
-    // spacing before first day
-    for (int i = 0; i < startDay; i++) {
-        System.out.print("   ");
+    private void markAllChanged() {
+        queryCache.clear(++modificationVersion);
     }
 
-    for (int day = 1; day <= daysInMonth; day++) {
-        LocalDate current = month.atDay(day);
-        boolean hasEvent = false;
+    // Key for whole-calendar queries (stats), evicted by any change
+    private static QueryCache.Key allTime(String type) {
+        return new QueryCache.Key(type, LocalDateTime.MIN, LocalDateTime.MAX);
+    }
 
-        for (Event e : events) {
-            if (e.getStart().toLocalDate().equals(current)) {
-                hasEvent = true;
-                break;
-            }
-        }
+    public synchronized long getModificationVersion() { return modificationVersion; }
+    public QueryCache getQueryCache() { return queryCache; }
 
-        System.out.print(day);
-        if (hasEvent) System.out.print("*");
-        else System.out.print(" ");
+    // Change feed: changes are only collected while someone is subscribed
+    private void recordChange(EventChange.Type type, Event e) {
+        // copy now: subscribers read the event on their own thread after the lock is released
+        if (changeFeed.hasSubscribers()) pendingChanges.add(new EventChange(type, e == null ? null : withId(e, e.getEventId())));
+    }
 
-        if ((day + startDay) % 7 == 0) System.out.println();
-        else System.out.print(" ");
+    private void publishChanges() {
+        changeFeed.publish(pendingChanges);
+        pendingChanges.clear();
     }
 
-    System.out.println("\n");
+    public EventChangeFeed getChangeFeed() { return changeFeed; }
 
-    // Event details
+    
+public synchronized void viewAllEvents() {
+    System.out.println("=== All Events ===");
     for (Event e : events) {
-        if (YearMonth.from(e.getStart()).equals(month)) {
-            System.out.println("* " +
-                e.getStart().getDayOfMonth() + ": " +
-                e.getTitle() +
-                " (" + e.getStart().toLocalTime() + ")");
-        }
+        System.out.println(e.getEventId() + ": " + e.getTitle() +
+                " (" + e.getStart() + " to " + e.getEnd() + ")");
     }
 }
-public void showLaunchReminder() {
+public synchronized void viewWeeklyList(LocalDate startDate) {
+    List<Event> week = searchByDateRange(startDate, startDate.plusDays(6));
+    CalendarRenderer.print(out -> CalendarRenderer.renderWeeklyList(out, startDate, week));
+}
+public synchronized void viewDailyList(LocalDate date) {
+    List<Event> day = searchByDateRange(date, date);
+    CalendarRenderer.print(out -> CalendarRenderer.renderDailyList(out, date, day));
+}
+public synchronized void viewMonthlyList(YearMonth month) {
+    List<Event> inMonth = searchByDateRange(month.atDay(1), month.atEndOfMonth());
+    CalendarRenderer.print(out -> CalendarRenderer.renderMonthlyList(out, month, inMonth));
+}
+public synchronized void viewCalendarMonthCLI(YearMonth month) {
+    List<Event> inMonth = searchByDateRange(month.atDay(1), month.atEndOfMonth());
+    CalendarRenderer.print(out -> CalendarRenderer.renderMonthGrid(out, month, inMonth));
+}
+public synchronized void viewCalendarYearCLI(int year) {
+    List<Event> inYear = searchByDateRange(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+    CalendarRenderer.print(out -> CalendarRenderer.renderYear(out, year, inYear));
+}
+public synchronized void showLaunchReminder() {
     LocalDateTime now = LocalDateTime.now();
     Event nextEvent = null;
     Duration shortest = null;
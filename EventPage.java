@@ -0,0 +1,44 @@
+package calendarapp;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+// One page of EventManager.queryPage results, ordered by (start, id).
+// nextCursor is null on the last page.
+public record EventPage(List<Event> events, String nextCursor) {
+
+    public boolean hasMore() { return nextCursor != null; }
+
+    // Cursor format: "<start>|<id>" of the last event on the page
+    static String cursorOf(Event e) {
+        return e.getStart() + "|" + e.getEventId();
+    }
+
+    // Both throw IllegalArgumentException for a cursor that cursorOf didn't produce
+    static LocalDateTime cursorStart(String cursor) {
+        try {
+            return LocalDateTime.parse(cursor.substring(0, separator(cursor)));
+        } catch (DateTimeParseException ex) {
+            throw malformed(cursor);
+        }
+    }
+
+    static int cursorId(String cursor) {
+        try {
+            return Integer.parseInt(cursor.substring(separator(cursor) + 1));
+        } catch (NumberFormatException ex) {
+            throw malformed(cursor);
+        }
+    }
+
+    private static int separator(String cursor) {
+        int bar = cursor.indexOf('|');
+        if (bar < 0) throw malformed(cursor);
+        return bar;
+    }
+
+    private static IllegalArgumentException malformed(String cursor) {
+        return new IllegalArgumentException("Malformed page cursor: \"" + cursor + "\"");
+    }
+}
@@ -0,0 +1,38 @@
+package calendarapp;
+
+import java.time.LocalDateTime;
+import java.util.function.Predicate;
+
+// Filters for EventManager.queryPage. Every filter is optional:
+//   new EventQuery().from(start).titleContains("lab").recurring(true)
+public class EventQuery {
+
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private String titleContains;
+    private Boolean recurring;
+    private Predicate<Event> matching;
+
+    // Only events starting at or after this time
+    public EventQuery from(LocalDateTime from) { this.from = from; return this; }
+
+    // Only events starting before this time
+    public EventQuery to(LocalDateTime to) { this.to = to; return this; }
+
+    // Case-insensitive substring match on the title
+    public EventQuery titleContains(String text) { this.titleContains = text.toLowerCase(); return this; }
+
+    public EventQuery recurring(boolean recurring) { this.recurring = recurring; return this; }
+
+    // Extra condition, e.g. a category lookup against the additional fields
+    public EventQuery matching(Predicate<Event> condition) { this.matching = condition; return this; }
+
+    public LocalDateTime getFrom() { return from != null ? from : LocalDateTime.MIN; }
+    public LocalDateTime getTo() { return to != null ? to : LocalDateTime.MAX; }
+
+    public boolean test(Event e) {
+        if (titleContains != null && (e.getTitle() == null || !e.getTitle().toLowerCase().contains(titleContains))) return false;
+        if (recurring != null && e.isRecurring() != recurring) return false;
+        return matching == null || matching.test(e);
+    }
+}
@@ -0,0 +1,11 @@
+package calendarapp;
+
+import java.util.function.Consumer;
+
+// A stream of events that can be walked more than once without holding it in memory,
+// e.g. the archive file followed by the hot list:
+//   action -> { archive.forEach(action); events.forEach(action); }
+@FunctionalInterface
+public interface EventSource {
+    void forEach(Consumer<Event> action);
+}
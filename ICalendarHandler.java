@@ -0,0 +1,339 @@
+package calendarapp;
+
+import java.io.*;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.function.Consumer;
+
+// Streaming reader/writer for iCalendar (.ics) files.
+// Reading never holds more than one VEVENT in memory, so feeds of any size can be imported.
+public class ICalendarHandler {
+
+    // Most occurrences imported for one RRULE, since every occurrence is stored as an event.
+    // Open-ended rules, and COUNT or UNTIL rules that reach further, are cut off here (and reported).
+    public static final int MAX_OCCURRENCES = 500;
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final int FOLD_LENGTH = 75;
+
+    // How many VEVENTs read passed to the sink, and how many it skipped as malformed
+    public record Result(int events, int skipped) { }
+
+    // Read every VEVENT and pass it to the sink as a template event (ID 0).
+    // Recurring events carry recurrenceType/recurrenceCount but are not expanded here.
+    // A VEVENT that can't be parsed is reported and skipped; the rest are still read.
+    public static Result read(BufferedReader reader, Consumer<Event> sink) throws IOException {
+        int count = 0;
+        int skipped = 0;
+        Map<String, String> props = null;
+        boolean inAlarm = false;
+        int reminderMinutes = 0;
+
+        String line;
+        String pending = reader.readLine();
+        while ((line = pending) != null) {
+            // unfold continuation lines (RFC 5545 3.1)
+            pending = reader.readLine();
+            while (pending != null && !pending.isEmpty()
+                    && (pending.charAt(0) == ' ' || pending.charAt(0) == '\t')) {
+                line += pending.substring(1);
+                pending = reader.readLine();
+            }
+
+            if (line.equals("BEGIN:VEVENT")) {
+                props = new HashMap<>();
+                reminderMinutes = 0;
+            } else if (line.equals("END:VEVENT") && props != null) {
+                Event e;
+                try {
+                    e = toEvent(props, reminderMinutes);
+                } catch (RuntimeException ex) {
+                    System.out.println("Skipping VEVENT " + props.getOrDefault("UID", "#" + (count + skipped + 1))
+                            + ": " + ex.getMessage());
+                    skipped++;
+                    props = null;
+                    continue;
+                }
+                sink.accept(e);
+                count++;
+                props = null;
+            } else if (line.equals("BEGIN:VALARM")) {
+                inAlarm = true;
+            } else if (line.equals("END:VALARM")) {
+                inAlarm = false;
+            } else if (props != null) {
+                int colon = line.indexOf(':');
+                if (colon < 0) continue;
+                String name = line.substring(0, colon);
+                String value = line.substring(colon + 1);
+                if (inAlarm) {
+                    if (name.startsWith("TRIGGER")) reminderMinutes = parseTrigger(value);
+                } else {
+                    props.put(name, value);
+                }
+            }
+        }
+        return new Result(count, skipped);
+    }
+
+    // Write events as a VCALENDAR. A series whose occurrences still match its RRULE is written once;
+    // series with edited or deleted occurrences are written occurrence by occurrence.
+    public static void write(Writer out, List<Event> events) throws IOException {
+        write(out, events::forEach);
+    }
+
+    // Same, streaming the source twice: once to find the regular series, once to write.
+    // Only a small summary per series is held in memory.
+    public static void write(Writer out, EventSource events) throws IOException {
+        Map<Integer, SeriesCheck> series = new HashMap<>();
+        events.forEach(e -> {
+            if (e.isRecurring() && e.getSeriesId() != 0) {
+                series.computeIfAbsent(e.getSeriesId(), k -> new SeriesCheck(e)).accept(e);
+            }
+        });
+
+        String stamp = LocalDateTime.now(ZoneOffset.UTC).format(DATE_TIME) + "Z";
+        writeLine(out, "BEGIN:VCALENDAR");
+        writeLine(out, "VERSION:2.0");
+        writeLine(out, "PRODID:-//group-assignment//Calendar App//EN");
+
+        Set<Integer> written = new HashSet<>();
+        try {
+            events.forEach(e -> {
+                try {
+                    SeriesCheck check = e.isRecurring() ? series.get(e.getSeriesId()) : null;
+                    if (check != null && check.isRegular()) {
+                        if (written.add(e.getSeriesId())) {
+                            writeEvent(out, check.first, stamp,
+                                    "FREQ=" + check.first.getRecurrenceType() + ";COUNT=" + check.seen);
+                        }
+                    } else {
+                        writeEvent(out, e, stamp, null);
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+
+        writeLine(out, "END:VCALENDAR");
+        out.flush();
+    }
+
+    private static Event toEvent(Map<String, String> props, int reminderMinutes) {
+        String startKey = findKey(props, "DTSTART");
+        if (startKey == null) throw new IllegalArgumentException("no DTSTART");
+        boolean allDay = startKey.contains("VALUE=DATE") && !startKey.contains("VALUE=DATE-TIME");
+        LocalDateTime start = parseDateTime(startKey, props.get(startKey));
+
+        LocalDateTime end;
+        String endKey = findKey(props, "DTEND");
+        String duration = props.get("DURATION");
+        if (endKey != null) {
+            end = parseDateTime(endKey, props.get(endKey));
+        } else if (duration != null) {
+            end = start.plus(parseDuration(duration));
+        } else {
+            end = allDay ? start.plusDays(1) : start;
+        }
+
+        String title = unescape(props.getOrDefault(findKeyOrName(props, "SUMMARY"), ""));
+        String desc = unescape(props.getOrDefault(findKeyOrName(props, "DESCRIPTION"), ""));
+        Event e = new Event(0, title, desc, start, end);
+        e.setReminderMinutes(reminderMinutes);
+
+        String rrule = props.get("RRULE");
+        if (rrule != null) applyRule(e, rrule);
+        return e;
+    }
+
+    // Map an RRULE onto recurrenceType/recurrenceCount. Rules the Event model
+    // cannot represent (INTERVAL > 1, YEARLY, BYDAY...) import as a single occurrence.
+    private static void applyRule(Event e, String rrule) {
+        Map<String, String> parts = new HashMap<>();
+        for (String part : rrule.split(";")) {
+            int eq = part.indexOf('=');
+            if (eq > 0) parts.put(part.substring(0, eq), part.substring(eq + 1));
+        }
+        String freq = parts.get("FREQ");
+        if (freq == null || !(freq.equals("DAILY") || freq.equals("WEEKLY") || freq.equals("MONTHLY"))) return;
+        if (!parts.getOrDefault("INTERVAL", "1").equals("1")) return;
+        if (parts.containsKey("BYDAY") || parts.containsKey("BYMONTHDAY")) return;
+
+        int count;
+        boolean capped;
+        if (parts.containsKey("COUNT")) {
+            int requested = Integer.parseInt(parts.get("COUNT"));
+            capped = requested > MAX_OCCURRENCES;
+            count = Math.min(requested, MAX_OCCURRENCES);
+        } else if (parts.containsKey("UNTIL")) {
+            LocalDateTime until = parseDateTime(parts.get("UNTIL"));
+            count = 0;
+            LocalDateTime t = e.getStart();
+            for (; !t.isAfter(until) && count < MAX_OCCURRENCES; t = Recurrence.advance(t, freq)) {
+                count++;
+            }
+            capped = !t.isAfter(until);
+        } else {
+            capped = true;
+            count = MAX_OCCURRENCES;
+        }
+        if (capped) {
+            System.out.println("RRULE for \"" + e.getTitle() + "\" (" + rrule + ") imported as its first "
+                    + MAX_OCCURRENCES + " occurrences");
+        }
+        if (count <= 1) return;
+
+        e.setRecurring(true);
+        e.setRecurrenceType(freq);
+        e.setRecurrenceCount(count);
+    }
+
+    // Tracks whether a series' occurrences, in the order they are seen, still follow its RRULE
+    private static class SeriesCheck {
+        final Event first;
+        int seen;
+        boolean regular = true;
+        LocalDateTime nextStart, nextEnd;
+
+        SeriesCheck(Event first) {
+            this.first = first;
+            this.nextStart = first.getStart();
+            this.nextEnd = first.getEnd();
+        }
+
+        void accept(Event e) {
+            seen++;
+            if (!e.getStart().equals(nextStart) || !e.getEnd().equals(nextEnd)
+                    || !Objects.equals(e.getTitle(), first.getTitle())
+                    || !Objects.equals(e.getDescription(), first.getDescription())) regular = false;
+            nextStart = Recurrence.advance(nextStart, first.getRecurrenceType());
+            nextEnd = Recurrence.advance(nextEnd, first.getRecurrenceType());
+        }
+
+        boolean isRegular() { return regular && seen == first.getRecurrenceCount(); }
+    }
+
+    private static void writeEvent(Writer out, Event e, String stamp, String rrule) throws IOException {
+        writeLine(out, "BEGIN:VEVENT");
+        writeLine(out, "UID:event-" + e.getEventId() + "@calendarapp");
+        writeLine(out, "DTSTAMP:" + stamp);
+        writeLine(out, "DTSTART:" + e.getStart().format(DATE_TIME));
+        writeLine(out, "DTEND:" + e.getEnd().format(DATE_TIME));
+        writeLine(out, "SUMMARY:" + escape(e.getTitle()));
+        if (e.getDescription() != null && !e.getDescription().isEmpty()) {
+            writeLine(out, "DESCRIPTION:" + escape(e.getDescription()));
+        }
+        if (rrule != null) writeLine(out, "RRULE:" + rrule);
+        if (e.getReminderMinutes() > 0) {
+            writeLine(out, "BEGIN:VALARM");
+            writeLine(out, "ACTION:DISPLAY");
+            writeLine(out, "DESCRIPTION:Reminder");
+            writeLine(out, "TRIGGER:-PT" + e.getReminderMinutes() + "M");
+            writeLine(out, "END:VALARM");
+        }
+        writeLine(out, "END:VEVENT");
+    }
+
+    // Fold long content lines at 75 characters (RFC 5545 3.1)
+    private static void writeLine(Writer out, String line) throws IOException {
+        int pos = 0;
+        while (line.length() - pos > FOLD_LENGTH) {
+            out.write(line, pos, FOLD_LENGTH);
+            out.write("\r\n ");
+            pos += FOLD_LENGTH;
+        }
+        out.write(line, pos, line.length() - pos);
+        out.write("\r\n");
+    }
+
+    private static String findKey(Map<String, String> props, String name) {
+        for (String key : props.keySet()) {
+            if (key.equals(name) || key.startsWith(name + ";")) return key;
+        }
+        return null;
+    }
+
+    private static String findKeyOrName(Map<String, String> props, String name) {
+        String key = findKey(props, name);
+        return key != null ? key : name;
+    }
+
+    // A DTSTART/DTEND value; with a TZID parameter (DTSTART;TZID=Europe/Paris:...) it is
+    // converted to local time. A TZID Java doesn't know is reported and read as floating time.
+    private static LocalDateTime parseDateTime(String key, String value) {
+        String tzid = param(key, "TZID");
+        if (tzid == null || value.length() == 8 || value.endsWith("Z")) return parseDateTime(value);
+        ZoneId zone;
+        try {
+            zone = ZoneId.of(tzid);
+        } catch (DateTimeException ex) {
+            System.out.println("Unknown TZID " + tzid + ", reading " + value + " as local time");
+            return parseDateTime(value);
+        }
+        return parseDateTime(value).atZone(zone).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    // Value of a property parameter, e.g. param("DTSTART;TZID=\"Europe/Paris\"", "TZID") -> Europe/Paris
+    private static String param(String key, String name) {
+        for (String part : key.split(";")) {
+            if (part.startsWith(name + "=")) {
+                String value = part.substring(name.length() + 1);
+                return value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")
+                        ? value.substring(1, value.length() - 1) : value;
+            }
+        }
+        return null;
+    }
+
+    // Accepts 20250105T110000, 20250105T110000Z (converted to local time) and 20250105
+    private static LocalDateTime parseDateTime(String value) {
+        if (value.length() == 8) return LocalDate.parse(value, DATE).atStartOfDay();
+        if (value.endsWith("Z")) {
+            LocalDateTime utc = LocalDateTime.parse(value.substring(0, value.length() - 1), DATE_TIME);
+            return utc.atOffset(ZoneOffset.UTC).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        }
+        return LocalDateTime.parse(value, DATE_TIME);
+    }
+
+    // iCalendar durations may use weeks (P1W), which Duration.parse does not accept
+    private static Duration parseDuration(String value) {
+        if (value.matches("[+-]?P\\d+W")) {
+            long weeks = Long.parseLong(value.replaceAll("[^0-9]", ""));
+            return Duration.ofDays(weeks * 7);
+        }
+        return Duration.parse(value);
+    }
+
+    // TRIGGER:-PT15M -> 15 minutes before start
+    private static int parseTrigger(String value) {
+        try {
+            Duration d = parseDuration(value);
+            return d.isNegative() ? (int) d.negated().toMinutes() : 0;
+        } catch (RuntimeException ex) {
+            return 0; // absolute or malformed triggers are ignored
+        }
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace(";", "\\;").replace(",", "\\,").replace("\n", "\\n");
+    }
+
+    private static String unescape(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                char next = text.charAt(++i);
+                sb.append(next == 'n' || next == 'N' ? '\n' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,347 @@
+package calendarapp;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Synthetic load generator / soak test for EventManager.
+// Seeds a realistic calendar (long history, recurring series, dense conflicts), then runs a
+// weighted operation mix on several threads for a fixed time and writes a JSON report with
+// throughput, p50/p99/p999 latency per operation, and heap and data/archive file sizes over time.
+//
+// The calendar lives in its own directory (a new temp directory unless dir= is given),
+// so a run never touches the real data/ files:
+//   java calendarapp.LoadGenerator threads=8 duration=300 mix=create:20,update:15,search:30 report=load.json
+public class LoadGenerator {
+
+    enum Op { CREATE, RECURRING, UPDATE, DELETE, SEARCH, VIEW, CONFLICT, STATS }
+
+    private static final String[] TITLES = {"Standup", "Lecture", "Lab", "Tutorial", "1:1", "Review",
+            "Planning", "Lunch", "Gym", "Study group", "Office hours", "Deadline"};
+    private static final String[] RECURRENCE_TYPES = {"DAILY", "WEEKLY", "MONTHLY"};
+    // Events sampled as update/delete targets, so picking one is O(1) and outside the timed region
+    private static final int TARGET_POOL_SIZE = 1024;
+
+    private final EventManager manager;
+    private final int threads;
+    private final int durationSeconds;
+    private final int sampleSeconds;
+    private final int seedYears;
+    private final EnumMap<Op, Integer> mix;
+    private final LocalDate today = LocalDate.now();
+    private final List<String> samples = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicLong completedOps = new AtomicLong();
+    private volatile AtomicReferenceArray<Event> targets = new AtomicReferenceArray<>(0); // refreshed on each sample
+
+    public LoadGenerator(EventManager manager, Map<String, String> config) {
+        this.manager = manager;
+        this.threads = Integer.parseInt(config.getOrDefault("threads", "4"));
+        this.durationSeconds = Integer.parseInt(config.getOrDefault("duration", "60"));
+        this.sampleSeconds = Integer.parseInt(config.getOrDefault("sample", "5"));
+        this.seedYears = Integer.parseInt(config.getOrDefault("seedYears", "2"));
+        this.mix = parseMix(config.getOrDefault("mix",
+                "create:15,recurring:3,update:15,delete:7,search:30,view:15,conflict:10,stats:5"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> config = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) config.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        File dir = config.containsKey("dir") ? new File(config.get("dir"))
+                : Files.createTempDirectory("calendar-load").toFile();
+        System.out.println("Calendar data in " + dir);
+        EventManager manager = new EventManager(new File(dir, "event.csv").getPath(), new File(dir, "archive.dat").getPath());
+        LoadGenerator generator = new LoadGenerator(manager, config);
+        String report = generator.run();
+        String path = config.getOrDefault("report", "load-report.json");
+        try (Writer out = new BufferedWriter(new FileWriter(path))) {
+            out.write(report);
+        }
+        System.out.println("Load report written to " + path);
+    }
+
+    // Seed, run the mix and return the report as JSON
+    public String run() throws InterruptedException {
+        long seedStart = System.nanoTime();
+        int seeded = seed(new Random(42));
+        long seedMillis = (System.nanoTime() - seedStart) / 1_000_000;
+        refreshTargets(new Random(43));
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        long runStart = System.nanoTime();
+        sampler.scheduleAtFixedRate(() -> sample(runStart), 0, sampleSeconds, TimeUnit.SECONDS);
+
+        long deadline = runStart + TimeUnit.SECONDS.toNanos(durationSeconds);
+        List<Worker> workers = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            Worker w = new Worker(new Random(1000 + i), deadline);
+            workers.add(w);
+            pool.execute(w);
+        }
+        pool.shutdown();
+        pool.awaitTermination(durationSeconds + 60L, TimeUnit.SECONDS);
+        long elapsedNanos = System.nanoTime() - runStart;
+
+        sampler.shutdown();
+        sampler.awaitTermination(5, TimeUnit.SECONDS);
+        sample(runStart);
+
+        // merge per-thread histograms
+        EnumMap<Op, Histogram> totals = new EnumMap<>(Op.class);
+        long errors = 0;
+        for (Worker w : workers) {
+            errors += w.errors;
+            for (Map.Entry<Op, Histogram> e : w.histograms.entrySet()) {
+                totals.computeIfAbsent(e.getKey(), k -> new Histogram()).add(e.getValue());
+            }
+        }
+        return toJson(seeded, seedMillis, elapsedNanos, errors, totals);
+    }
+
+    // Build a calendar with history: weekly classes, daily standups, monthly reviews
+    // and a dense scatter of overlapping one-off events during working hours
+    private int seed(Random rnd) {
+        LocalDate from = today.minusYears(seedYears);
+        int weeks = seedYears * 52 + 26;
+
+        for (int i = 0; i < 10; i++) {
+            LocalDateTime start = from.plusDays(rnd.nextInt(7)).atTime(8 + rnd.nextInt(9), rnd.nextBoolean() ? 0 : 30);
+            manager.addRecurringEvent(template(rnd, start, "WEEKLY", weeks));
+        }
+        for (int i = 0; i < 2; i++) {
+            LocalDateTime start = from.atTime(9, 15 * i);
+            manager.addRecurringEvent(template(rnd, start, "DAILY", weeks * 7));
+        }
+        for (int i = 0; i < 3; i++) {
+            LocalDateTime start = from.plusDays(rnd.nextInt(28)).atTime(14, 0);
+            manager.addRecurringEvent(template(rnd, start, "MONTHLY", seedYears * 12 + 6));
+        }
+        for (int i = 0; i < weeks * 15; i++) {
+            LocalDateTime start = randomSlot(rnd, from, weeks * 7);
+            manager.createEvent(title(rnd), "seeded", start, start.plusMinutes(30 + 30 * rnd.nextInt(4)));
+        }
+        // archiving normally runs once a day, so move the seeded history to the archive tier now
+        manager.archivePastEvents();
+        return manager.getTotalEvents();
+    }
+
+    private class Worker implements Runnable {
+        final Random rnd;
+        final long deadline;
+        final EnumMap<Op, Histogram> histograms = new EnumMap<>(Op.class);
+        final Op[] wheel;
+        long errors;
+
+        Worker(Random rnd, long deadline) {
+            this.rnd = rnd;
+            this.deadline = deadline;
+            List<Op> ops = new ArrayList<>();
+            for (Map.Entry<Op, Integer> e : mix.entrySet()) {
+                for (int i = 0; i < e.getValue(); i++) ops.add(e.getKey());
+            }
+            this.wheel = ops.toArray(new Op[0]);
+        }
+
+        @Override
+        public void run() {
+            while (System.nanoTime() < deadline) {
+                Op op = wheel[rnd.nextInt(wheel.length)];
+                Event target = null;
+                if (op == Op.UPDATE || op == Op.DELETE) {
+                    target = pickTarget(rnd, op == Op.DELETE);
+                    if (target == null) continue; // slot already deleted; don't time a no-op
+                }
+                long start = System.nanoTime();
+                try {
+                    execute(op, target, rnd);
+                } catch (RuntimeException ex) {
+                    errors++;
+                }
+                histograms.computeIfAbsent(op, k -> new Histogram()).record(System.nanoTime() - start);
+                completedOps.incrementAndGet();
+            }
+        }
+    }
+
+    // target is the event to update or delete, picked by the caller before the clock starts
+    private void execute(Op op, Event target, Random rnd) {
+        LocalDate windowStart = today.minusYears(seedYears);
+        int windowDays = seedYears * 365 + 180;
+        switch (op) {
+            case CREATE -> {
+                LocalDateTime start = randomSlot(rnd, windowStart, windowDays);
+                manager.createEvent(title(rnd), "load", start, start.plusMinutes(30 + 30 * rnd.nextInt(4)));
+            }
+            case RECURRING -> {
+                LocalDateTime start = randomSlot(rnd, today, 90);
+                String type = RECURRENCE_TYPES[rnd.nextInt(RECURRENCE_TYPES.length)];
+                manager.addRecurringEvent(template(rnd, start, type, 5 + rnd.nextInt(16)));
+            }
+            case UPDATE -> {
+                LocalDateTime start = target.getStart().plusMinutes(30L * (rnd.nextInt(5) - 2));
+                manager.updateEvent(target.getEventId(), target.getTitle(), "updated", start, start.plusHours(1));
+            }
+            case DELETE -> manager.deleteEvent(target.getEventId());
+            case SEARCH -> {
+                LocalDate from = windowStart.plusDays(rnd.nextInt(windowDays));
+                manager.searchByDateRange(from, from.plusDays(6));
+            }
+            case VIEW -> {
+                YearMonth month = YearMonth.from(windowStart.plusDays(rnd.nextInt(windowDays)));
+                List<Event> inMonth = manager.searchByDateRange(month.atDay(1), month.atEndOfMonth());
+                StringBuilder sb = new StringBuilder();
+                try {
+                    CalendarRenderer.renderMonthGrid(sb, month, inMonth);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+            case CONFLICT -> {
+                LocalDateTime start = randomSlot(rnd, windowStart, windowDays);
+                manager.hasConflict(start, start.plusHours(1));
+            }
+            case STATS -> {
+                manager.getTotalEvents();
+                manager.getRecurringEventCount();
+                manager.getBusiestDay();
+            }
+        }
+    }
+
+    // A deleted target's slot is cleared, so it isn't deleted (or updated) again before the next refresh
+    private Event pickTarget(Random rnd, boolean remove) {
+        AtomicReferenceArray<Event> pool = targets;
+        if (pool.length() == 0) return null;
+        int i = rnd.nextInt(pool.length());
+        return remove ? pool.getAndSet(i, null) : pool.get(i);
+    }
+
+    // Sample the target pool from a snapshot of the hot events; runs on the sampler thread
+    private void refreshTargets(Random rnd) {
+        List<Event> events = manager.getEvents();
+        AtomicReferenceArray<Event> pool = new AtomicReferenceArray<>(Math.min(TARGET_POOL_SIZE, events.size()));
+        for (int i = 0; i < pool.length(); i++) pool.set(i, events.get(rnd.nextInt(events.size())));
+        targets = pool;
+    }
+
+    private void sample(long runStart) {
+        Runtime rt = Runtime.getRuntime();
+        long heapUsed = rt.totalMemory() - rt.freeMemory();
+        long dataFileSize = new File(manager.getDataFile()).length();
+        long archiveFileSize = manager.getArchive().getFile().length();
+        long seconds = (System.nanoTime() - runStart) / 1_000_000_000L;
+        samples.add(String.format(Locale.ROOT, "{\"t\": %d, \"ops\": %d, \"events\": %d, \"heapUsedBytes\": %d, \"dataFileBytes\": %d, \"archiveFileBytes\": %d}",
+                seconds, completedOps.get(), manager.getTotalEvents(), heapUsed, dataFileSize, archiveFileSize));
+        refreshTargets(ThreadLocalRandom.current());
+    }
+
+    private String toJson(int seeded, long seedMillis, long elapsedNanos, long errors, EnumMap<Op, Histogram> totals) {
+        double seconds = elapsedNanos / 1e9;
+        long total = 0;
+        for (Histogram h : totals.values()) total += h.count;
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n");
+        sb.append("  \"config\": {\"threads\": ").append(threads)
+          .append(", \"durationSeconds\": ").append(durationSeconds)
+          .append(", \"seedYears\": ").append(seedYears)
+          .append(", \"mix\": \"").append(mix).append("\"},\n");
+        sb.append("  \"seed\": {\"events\": ").append(seeded).append(", \"millis\": ").append(seedMillis).append("},\n");
+        sb.append(String.format(Locale.ROOT, "  \"totalOps\": %d,%n  \"errors\": %d,%n  \"throughputOpsPerSec\": %.1f,%n", total, errors, total / seconds));
+        sb.append("  \"operations\": {\n");
+        Iterator<Map.Entry<Op, Histogram>> it = totals.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Op, Histogram> e = it.next();
+            Histogram h = e.getValue();
+            sb.append(String.format(Locale.ROOT, "    \"%s\": {\"count\": %d, \"opsPerSec\": %.1f, \"p50Micros\": %.1f, \"p99Micros\": %.1f, \"p999Micros\": %.1f, \"maxMicros\": %.1f}",
+                    e.getKey().name().toLowerCase(Locale.ROOT), h.count, h.count / seconds,
+                    h.percentile(0.50) / 1e3, h.percentile(0.99) / 1e3, h.percentile(0.999) / 1e3, h.max / 1e3));
+            sb.append(it.hasNext() ? ",\n" : "\n");
+        }
+        sb.append("  },\n");
+        sb.append("  \"samples\": [\n    ").append(String.join(",\n    ", samples)).append("\n  ]\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    // Log-linear latency histogram: 16 sub-buckets per power of two (about 6% precision)
+    static class Histogram {
+        private static final int SUB_BUCKETS = 16;
+        private final long[] counts = new long[64 * SUB_BUCKETS];
+        long count;
+        long max;
+
+        void record(long nanos) {
+            counts[bucket(Math.max(nanos, 1))]++;
+            count++;
+            max = Math.max(max, nanos);
+        }
+
+        void add(Histogram other) {
+            for (int i = 0; i < counts.length; i++) counts[i] += other.counts[i];
+            count += other.count;
+            max = Math.max(max, other.max);
+        }
+
+        // Upper bound (in nanos) of the bucket holding the given quantile
+        double percentile(double q) {
+            if (count == 0) return 0;
+            long target = (long) Math.ceil(q * count);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) return Math.min(upperBound(i), max);
+            }
+            return max;
+        }
+
+        private static int bucket(long v) {
+            int msb = 63 - Long.numberOfLeadingZeros(v);
+            if (msb < 4) return (int) v;
+            return msb * SUB_BUCKETS + (int) ((v >>> (msb - 4)) & (SUB_BUCKETS - 1));
+        }
+
+        private static long upperBound(int index) {
+            int msb = index / SUB_BUCKETS;
+            if (msb < 4) return index;
+            int sub = index % SUB_BUCKETS;
+            return ((long) (SUB_BUCKETS + sub + 1) << (msb - 4)) - 1;
+        }
+    }
+
+    private static EnumMap<Op, Integer> parseMix(String spec) {
+        EnumMap<Op, Integer> mix = new EnumMap<>(Op.class);
+        for (String part : spec.split(",")) {
+            String[] kv = part.split(":");
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight > 0) mix.put(Op.valueOf(kv[0].trim().toUpperCase(Locale.ROOT)), weight);
+        }
+        if (mix.isEmpty()) throw new IllegalArgumentException("Operation mix is empty: " + spec);
+        return mix;
+    }
+
+    private static Event template(Random rnd, LocalDateTime start, String type, int count) {
+        Event e = new Event(0, title(rnd), "recurring", start, start.plusMinutes(30 + 30 * rnd.nextInt(3)));
+        e.setRecurring(true);
+        e.setRecurrenceType(type);
+        e.setRecurrenceCount(count);
+        e.setReminderMinutes(rnd.nextInt(4) * 5);
+        return e;
+    }
+
+    // Working-hours slot on a random day, on the half hour so events collide often
+    private static LocalDateTime randomSlot(Random rnd, LocalDate from, int days) {
+        return from.plusDays(rnd.nextInt(days)).atTime(8 + rnd.nextInt(10), rnd.nextBoolean() ? 0 : 30);
+    }
+
+    private static String title(Random rnd) {
+        return TITLES[rnd.nextInt(TITLES.length)];
+    }
+}
@@ -6,15 +6,22 @@ import java.awt.*;
 import java.awt.event.*;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.Flow;
 
 public class MainAppGUI extends JFrame {
 
     private EventManager manager;
     private JTable eventTable;
     private DefaultTableModel tableModel;
+    private final Map<Integer, Integer> rowById = new HashMap<>(); // event ID -> table row
+    private volatile boolean feedAttached; // false once the change feed ended; actions then reload the table
     private DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
 
     public MainAppGUI() {
@@ -27,6 +34,8 @@ public class MainAppGUI extends JFrame {
         // Table setup
         tableModel = new DefaultTableModel(new String[]{"ID", "Title", "Start", "End"}, 0);
         eventTable = new JTable(tableModel);
+        // Keep the table in sync through the change feed instead of reloading after every action
+        attachFeed();
         refreshTable();
 
         JScrollPane scrollPane = new JScrollPane(eventTable);
@@ -78,12 +87,110 @@ public class MainAppGUI extends JFrame {
         manager.checkUpcomingReminders(manager.getEvents());
     }
 
+    private void attachFeed() {
+        feedAttached = true;
+        manager.getChangeFeed().subscribe(new TableUpdater());
+    }
+
+    // After a user action: the feed normally updates the table, but not once it has ended
+    private void refreshIfDetached() {
+        if (!feedAttached) refreshTable();
+    }
+
     private void refreshTable() {
         tableModel.setRowCount(0);
+        rowById.clear();
         List<Event> events = manager.getEvents();
-        for (Event e : events) {
-            tableModel.addRow(new Object[]{e.getEventId(), e.getTitle(),
-                    e.getStart().format(dtf), e.getEnd().format(dtf)});
+        for (Event e : events) addRow(e);
+    }
+
+    private void addRow(Event e) {
+        rowById.put(e.getEventId(), tableModel.getRowCount());
+        tableModel.addRow(new Object[]{e.getEventId(), e.getTitle(),
+                e.getStart().format(dtf), e.getEnd().format(dtf)});
+    }
+
+    // Apply a batch of changes to the table rows (on the EDT). Rows are found through
+    // rowById, and all of a batch's removals are done in one pass at the end.
+    private void applyChanges(EventChange.Batch batch) {
+        Set<Integer> removed = new HashSet<>();
+        for (EventChange change : batch.changes()) {
+            Event e = change.event();
+            switch (change.type()) {
+                case CREATED -> {
+                    if (!rowById.containsKey(e.getEventId())) addRow(e);
+                }
+                case UPDATED, SERIES_UPDATED -> {
+                    Integer row = rowById.get(e.getEventId());
+                    if (row != null) {
+                        tableModel.setValueAt(e.getTitle(), row, 1);
+                        tableModel.setValueAt(e.getStart().format(dtf), row, 2);
+                        tableModel.setValueAt(e.getEnd().format(dtf), row, 3);
+                    }
+                }
+                case DELETED, ARCHIVED -> {
+                    if (rowById.containsKey(e.getEventId())) removed.add(e.getEventId());
+                }
+                case BULK_RESTORED -> {
+                    refreshTable();
+                    return;
+                }
+            }
+        }
+        if (!removed.isEmpty()) removeRows(removed);
+    }
+
+    // Drop the rows for the given IDs and renumber the rest, in one pass over the table
+    private void removeRows(Set<Integer> ids) {
+        tableModel.getDataVector().removeIf(row -> ids.contains((Integer) row.get(0)));
+        rowById.clear();
+        for (int row = 0; row < tableModel.getRowCount(); row++) {
+            rowById.put((Integer) tableModel.getValueAt(row, 0), row);
+        }
+        tableModel.fireTableDataChanged();
+    }
+
+    // Receives change batches from the manager; a gap in the sequence means
+    // batches were dropped while we were busy, so the table is reloaded instead.
+    private class TableUpdater implements Flow.Subscriber<EventChange.Batch> {
+        private Flow.Subscription subscription;
+        private long lastSequence = manager.getChangeFeed().getSequence();
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(EventChange.Batch batch) {
+            boolean missed = batch.sequence() != lastSequence + 1;
+            lastSequence = batch.sequence();
+            // ask for the next batch only once this one is on screen, so a busy EDT
+            // makes the feed's bounded buffer fill up (and resync) instead of its queue
+            SwingUtilities.invokeLater(() -> {
+                if (missed) refreshTable();
+                else applyChanges(batch);
+                subscription.request(1);
+            });
+        }
+
+        // The subscription is over: reload, and subscribe again unless the feed itself was closed
+        @Override
+        public void onError(Throwable throwable) {
+            SwingUtilities.invokeLater(() -> {
+                feedAttached = false;
+                if (!manager.getChangeFeed().isClosed()) attachFeed();
+                refreshTable();
+            });
+        }
+
+        @Override
+        public void onComplete() {
+            SwingUtilities.invokeLater(() -> {
+                feedAttached = false;
+                refreshTable();
+            });
         }
     }
 
@@ -125,7 +232,7 @@ public class MainAppGUI extends JFrame {
                 }
 
                 manager.createEvent(titleField.getText(), descField.getText(), start, end);
-                refreshTable();
+                refreshIfDetached();
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(this, "Invalid date/time format or error: " + ex.getMessage());
             }
@@ -165,7 +272,7 @@ public class MainAppGUI extends JFrame {
                 LocalDateTime start = LocalDateTime.parse(startField.getText(), dtf);
                 LocalDateTime end = LocalDateTime.parse(endField.getText(), dtf);
                 manager.updateEvent(id, titleField.getText(), descField.getText(), start, end);
-                refreshTable();
+                refreshIfDetached();
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(this, "Invalid date/time format!");
             }
@@ -180,23 +287,37 @@ public class MainAppGUI extends JFrame {
         }
         int id = (int) tableModel.getValueAt(selected, 0);
         manager.deleteEvent(id);
-        refreshTable();
+        refreshIfDetached();
     }
 
     private void backupEvents() {
         JFileChooser chooser = new JFileChooser();
         if (chooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
-            manager.backupEvents(chooser.getSelectedFile().getAbsolutePath());
-            JOptionPane.showMessageDialog(this, "Backup done!");
+            if (manager.backupEvents(chooser.getSelectedFile().getAbsolutePath())) {
+                JOptionPane.showMessageDialog(this, "Backup done!");
+            } else {
+                JOptionPane.showMessageDialog(this, "Backup failed, see the console for details.");
+            }
         }
     }
 
     private void restoreEvents() {
         JFileChooser chooser = new JFileChooser();
         if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
-            manager.restoreEvents(chooser.getSelectedFile().getAbsolutePath());
-            refreshTable();
-            JOptionPane.showMessageDialog(this, "Restore done!");
+            String path = chooser.getSelectedFile().getAbsolutePath();
+            int choice = JOptionPane.showConfirmDialog(this,
+                    "Merge the backup with the current events?\n(No replaces all current events)",
+                    "Restore", JOptionPane.YES_NO_CANCEL_OPTION);
+            if (choice == JOptionPane.YES_OPTION) {
+                int added = manager.mergeEvents(path);
+                refreshIfDetached();
+                JOptionPane.showMessageDialog(this, added < 0 ? "Merge failed, see the console for details."
+                        : "Merge done! " + added + " events added.");
+            } else if (choice == JOptionPane.NO_OPTION) {
+                manager.restoreEvents(path);
+                refreshIfDetached();
+                JOptionPane.showMessageDialog(this, "Restore done!");
+            }
         }
     }
 
@@ -0,0 +1,87 @@
+package calendarapp;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Supplier;
+
+// LRU cache of query results keyed by query type and time window.
+// Mutations evict only the windows their time span overlaps, so navigating
+// back and forth between weeks or months is served from memory.
+public class QueryCache {
+
+    public static final int DEFAULT_CAPACITY = 64;
+
+    // Window covered by a query: [from, to)
+    public record Key(String type, LocalDateTime from, LocalDateTime to) { }
+
+    private final int capacity;
+    private final LinkedHashMap<Key, Object> entries;
+    private long currentVersion; // EventManager modification version at the last invalidation
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public QueryCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public QueryCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) { // access order = LRU
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                return size() > QueryCache.this.capacity;
+            }
+        };
+    }
+
+    // Return the cached result for key, or compute and cache it.
+    // A result computed while the store changed (version moved on) is returned but not cached.
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T get(Key key, long version, Supplier<T> loader) {
+        Object cached = entries.get(key);
+        if (cached != null) {
+            hits++;
+            return (T) cached;
+        }
+        misses++;
+        T value = loader.get();
+        if (version == currentVersion) entries.put(key, value);
+        return value;
+    }
+
+    // Evict every cached window overlapping the changed span [start, end]
+    public synchronized void invalidate(LocalDateTime start, LocalDateTime end, long version) {
+        currentVersion = version;
+        Iterator<Key> it = entries.keySet().iterator();
+        while (it.hasNext()) {
+            Key key = it.next();
+            if (start.isBefore(key.to()) && !end.isBefore(key.from())) {
+                it.remove();
+                evictions++;
+            }
+        }
+    }
+
+    public synchronized void clear(long version) {
+        currentVersion = version;
+        evictions += entries.size();
+        entries.clear();
+    }
+
+    // Metrics
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getEvictions() { return evictions; }
+    public synchronized int size() { return entries.size(); }
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("QueryCache[size=%d/%d, hits=%d, misses=%d, evictions=%d, hitRate=%.1f%%]",
+                entries.size(), capacity, hits, misses, evictions, getHitRate() * 100);
+    }
+}
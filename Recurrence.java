@@ -0,0 +1,19 @@
+package calendarapp;
+
+import java.time.LocalDateTime;
+
+// Recurrence stepping shared by EventManager (expanding series), SeriesCodec (the on-disk
+// format) and ICalendarHandler (RRULE import/export), so all three agree on where the
+// next occurrence falls.
+public class Recurrence {
+
+    // Step a date-time forward by one occurrence of the given recurrence type
+    public static LocalDateTime advance(LocalDateTime time, String recurrenceType) {
+        return switch (recurrenceType) {
+            case "DAILY" -> time.plusDays(1);
+            case "WEEKLY" -> time.plusWeeks(1);
+            case "MONTHLY" -> time.plusMonths(1);
+            default -> time;
+        };
+    }
+}
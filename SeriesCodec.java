@@ -0,0 +1,389 @@
+package calendarapp;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Consumer;
+
+// Series-aware on-disk encoding for events (data/event.csv and backups).
+// Attributes shared by a recurring series are written once; occurrences that still sit
+// where the series puts them collapse into runs, and edited ones store only what changed:
+//
+//   #calendar-series v1
+//   S,<seriesId>,<baseId>,<type>,<count>,<reminder>,<baseStart>,<baseEnd>,<title>,<desc>
+//   R,<delta>,<n>                       n untouched occurrences starting at baseId + delta
+//   O,<delta>,<flags>,<start>,<end>,<title>,<desc>,<reminder>   edited occurrence (unflagged fields empty)
+//   E,<id>,<start>,<end>,<recurring>,<type>,<count>,<seriesId>,<reminder>,<title>,<desc>
+//
+// R and O lines belong to the S line above them, in ascending delta order. delta is the
+// occurrence's ID offset from baseId, and the occurrence is expected that many steps after
+// baseStart (addRecurringEvent allocates IDs in order). A moved occurrence is an O line with
+// the MOVED flag; one that sits on the series' schedule at a different step than its ID says
+// (a merge gave it a new ID) is written as an E line. Files without the header are read as
+// the old one-event-per-line CSV.
+public class SeriesCodec {
+
+    public static final String HEADER = "#calendar-series v1";
+
+    private static final int MOVED = 1, TITLE = 2, DESC = 4, REMINDER = 8;
+
+    // Write the header and all events (see Encoder)
+    public static void write(Writer out, List<Event> events) throws IOException {
+        write(out, events::forEach);
+    }
+
+    // Write the header and every event the source yields, in a single streamed pass
+    public static void write(Writer out, EventSource events) throws IOException {
+        Encoder encoder = new Encoder(out);
+        try {
+            events.forEach(e -> {
+                try {
+                    encoder.add(e);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        encoder.finish();
+        out.flush();
+    }
+
+    // Events as single E lines, for appending to a file that already has the header
+    public static void writeEvents(Writer out, List<Event> events) throws IOException {
+        StringBuilder line = new StringBuilder(128);
+        for (Event e : events) writeEvent(out, e, line);
+        out.flush();
+    }
+
+    // Read either format, passing each event to the sink as soon as it is decoded.
+    // A line that can't be decoded fails the whole read with an IOException.
+    public static void read(BufferedReader in, Consumer<Event> sink) throws IOException {
+        read(in, sink, false, true);
+    }
+
+    // With tolerateTornTail, a last line that can't be decoded or has no newline (an append
+    // that never finished) is skipped instead; returns true if that happened
+    private static boolean read(BufferedReader in, Consumer<Event> sink, boolean tolerateTornTail,
+                                boolean endsWithNewline) throws IOException {
+        String line = in.readLine();
+        if (line == null) return false;
+        boolean compact = line.equals(HEADER);
+        if (compact) line = in.readLine();
+
+        SeriesCursor series = null;
+        int lineNumber = compact ? 2 : 1;
+        for (; line != null; lineNumber++) {
+            String next = in.readLine();
+            boolean mayBeTorn = tolerateTornTail && next == null;
+            if (mayBeTorn && !endsWithNewline) return skipTornLine(lineNumber, line);
+            if (!line.isBlank()) {
+                try {
+                    if (compact) series = decode(line, series, sink);
+                    else sink.accept(parseLegacyLine(line));
+                } catch (RuntimeException ex) {
+                    if (mayBeTorn) return skipTornLine(lineNumber, line);
+                    throw new IOException("Corrupt line " + lineNumber + ": " + line, ex);
+                }
+            }
+            line = next;
+        }
+        return false;
+    }
+
+    private static boolean skipTornLine(int lineNumber, String line) {
+        System.out.println("Skipping incomplete last line " + lineNumber + ": " + line);
+        return true;
+    }
+
+    // Decode one compact line; returns the series that following R and O lines belong to
+    private static SeriesCursor decode(String line, SeriesCursor series, Consumer<Event> sink) {
+        String[] p = line.split(",", -1);
+        switch (p[0]) {
+            case "S" -> {
+                return new SeriesCursor(p);
+            }
+            case "R" -> {
+                int delta = Integer.parseInt(p[1]);
+                int n = Integer.parseInt(p[2]);
+                List<Event> run = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) run.add(series.occurrence(delta + i));
+                run.forEach(sink); // only once the whole line decoded
+            }
+            case "O" -> sink.accept(series.override(p));
+            case "E" -> sink.accept(parseEvent(p));
+            default -> throw new IllegalArgumentException("Unknown line type");
+        }
+        return series;
+    }
+
+    // Save events to path, replacing the file only once the new one is fully written
+    public static void save(String path, List<Event> events) throws IOException {
+        File file = new File(path);
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) parent.mkdirs();
+        File tmp = new File(path + ".tmp");
+        try (Writer out = new BufferedWriter(new FileWriter(tmp))) {
+            write(out, events);
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // What load found at a path
+    public enum Status { MISSING, LEGACY, LOADED, REPAIRED }
+
+    // events is empty unless status is LOADED or REPAIRED (an incomplete last line was dropped)
+    public record Loaded(Status status, List<Event> events) { }
+
+    // Read a file in this format. Missing and old-format files are reported, not read;
+    // a file that is corrupt anywhere but its last line throws IOException.
+    public static Loaded load(String path) throws IOException {
+        File file = new File(path);
+        if (!file.exists()) return new Loaded(Status.MISSING, new ArrayList<>());
+        try (BufferedReader in = new BufferedReader(new FileReader(file))) {
+            in.mark(HEADER.length() + 2);
+            if (!HEADER.equals(in.readLine())) return new Loaded(Status.LEGACY, new ArrayList<>());
+            in.reset();
+            List<Event> events = new ArrayList<>();
+            boolean repaired = read(in, events::add, true, endsWithNewline(file));
+            return new Loaded(repaired ? Status.REPAIRED : Status.LOADED, events);
+        }
+    }
+
+    // Every line this class writes ends with a newline, so a file that doesn't was torn mid-append
+    private static boolean endsWithNewline(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            if (raf.length() == 0) return true;
+            raf.seek(raf.length() - 1);
+            return raf.read() == '\n';
+        }
+    }
+
+    // Streaming encoder. Single events and occurrences that don't fit their series are written
+    // as E lines straight away; for each series only a bitset of untouched occurrences and the
+    // O lines of edited ones are kept until finish(), so memory grows with the number of
+    // series rather than with the history.
+    private static class Encoder {
+        private final Writer out;
+        private final StringBuilder line = new StringBuilder(128);
+        private final Map<Integer, SeriesState> series = new LinkedHashMap<>();
+
+        Encoder(Writer out) throws IOException {
+            this.out = out;
+            out.write(HEADER);
+            out.write('\n');
+        }
+
+        void add(Event e) throws IOException {
+            if (!e.isRecurring() || e.getSeriesId() == 0) {
+                writeEvent(out, e, line);
+                return;
+            }
+            SeriesState state = series.computeIfAbsent(e.getSeriesId(), k -> new SeriesState(e)); // first one seen is the base
+            Event base = state.base;
+            int delta = e.getEventId() - base.getEventId();
+            if (!sameSeriesFields(e, base)) {
+                writeEvent(out, e, line);
+                return;
+            }
+
+            int flags = 0;
+            if (!state.isExpectedAt(delta, e)) {
+                int step = state.stepOf(e.getStart());
+                if (step > 0 && step != delta) { // on schedule, but its ID no longer tells its step
+                    writeEvent(out, e, line);
+                    return;
+                }
+                flags |= MOVED;
+            }
+            if (!Objects.equals(e.getTitle(), base.getTitle())) flags |= TITLE;
+            if (!Objects.equals(e.getDescription(), base.getDescription())) flags |= DESC;
+            if (e.getReminderMinutes() != base.getReminderMinutes()) flags |= REMINDER;
+            if (flags == 0) {
+                state.untouched.set(delta);
+            } else {
+                state.edited.put(delta, "O," + delta + ',' + flags + ','
+                        + ((flags & MOVED) != 0 ? e.getStart() + "," + e.getEnd() : ",") + ','
+                        + ((flags & TITLE) != 0 ? text(e.getTitle()) : "") + ','
+                        + ((flags & DESC) != 0 ? text(e.getDescription()) : "") + ','
+                        + ((flags & REMINDER) != 0 ? String.valueOf(e.getReminderMinutes()) : "") + '\n');
+            }
+        }
+
+        // Write each series: its S line, then runs and O lines in ascending delta order
+        void finish() throws IOException {
+            for (SeriesState state : series.values()) {
+                Event base = state.base;
+                line.setLength(0);
+                line.append("S,").append(base.getSeriesId()).append(',').append(base.getEventId()).append(',')
+                    .append(text(base.getRecurrenceType())).append(',').append(base.getRecurrenceCount()).append(',')
+                    .append(base.getReminderMinutes()).append(',').append(base.getStart()).append(',').append(base.getEnd()).append(',')
+                    .append(text(base.getTitle())).append(',').append(text(base.getDescription())).append('\n');
+                out.append(line);
+
+                int delta = state.untouched.nextSetBit(0);
+                Iterator<Map.Entry<Integer, String>> edits = state.edited.entrySet().iterator();
+                Map.Entry<Integer, String> edit = edits.hasNext() ? edits.next() : null;
+                while (delta >= 0 || edit != null) {
+                    if (edit == null || (delta >= 0 && delta < edit.getKey())) {
+                        int end = state.untouched.nextClearBit(delta); // edited deltas are never set
+                        out.append("R,").append(String.valueOf(delta)).append(',').append(String.valueOf(end - delta)).append('\n');
+                        delta = state.untouched.nextSetBit(end);
+                    } else {
+                        out.append(edit.getValue());
+                        edit = edits.hasNext() ? edits.next() : null;
+                    }
+                }
+            }
+            series.clear();
+        }
+    }
+
+    private static class SeriesState {
+        final Event base;
+        final BitSet untouched = new BitSet();
+        final TreeMap<Integer, String> edited = new TreeMap<>();
+        // expected times at step, walked forward the same way addRecurringEvent does
+        int step;
+        LocalDateTime expectedStart, expectedEnd;
+
+        SeriesState(Event base) {
+            this.base = base;
+            this.expectedStart = base.getStart();
+            this.expectedEnd = base.getEnd();
+        }
+
+        boolean isExpectedAt(int delta, Event e) {
+            if (delta < step) { // out of order, walk again from the base
+                step = 0;
+                expectedStart = base.getStart();
+                expectedEnd = base.getEnd();
+            }
+            while (step < delta) {
+                expectedStart = Recurrence.advance(expectedStart, base.getRecurrenceType());
+                expectedEnd = Recurrence.advance(expectedEnd, base.getRecurrenceType());
+                step++;
+            }
+            return e.getStart().equals(expectedStart) && e.getEnd().equals(expectedEnd);
+        }
+
+        // Step at which the series' schedule reaches start, or -1 if it never does
+        int stepOf(LocalDateTime start) {
+            LocalDateTime t = base.getStart();
+            for (int i = 0; i < base.getRecurrenceCount() && !t.isAfter(start); i++) {
+                if (t.equals(start)) return i;
+                LocalDateTime next = Recurrence.advance(t, base.getRecurrenceType());
+                if (next.equals(t)) break; // type doesn't advance
+                t = next;
+            }
+            return -1;
+        }
+    }
+
+    // Occurrences that changed recurrence settings, or whose ID is outside the base's
+    // recurrenceCount steps, don't fit the series header
+    private static boolean sameSeriesFields(Event e, Event base) {
+        int delta = e.getEventId() - base.getEventId();
+        return e.isRecurring() && delta >= 0 && delta < base.getRecurrenceCount()
+                && Objects.equals(e.getRecurrenceType(), base.getRecurrenceType())
+                && e.getRecurrenceCount() == base.getRecurrenceCount();
+    }
+
+    private static void writeEvent(Writer out, Event e, StringBuilder line) throws IOException {
+        line.setLength(0);
+        line.append("E,").append(e.getEventId()).append(',').append(e.getStart()).append(',').append(e.getEnd()).append(',')
+            .append(e.isRecurring()).append(',').append(text(e.getRecurrenceType())).append(',')
+            .append(e.getRecurrenceCount()).append(',').append(e.getSeriesId()).append(',')
+            .append(e.getReminderMinutes()).append(',').append(text(e.getTitle())).append(',')
+            .append(text(e.getDescription())).append('\n');
+        out.append(line);
+    }
+
+    private static Event parseEvent(String[] p) {
+        Event e = new Event(Integer.parseInt(p[1]), untext(p[9]), untext(p[10]),
+                LocalDateTime.parse(p[2]), LocalDateTime.parse(p[3]));
+        e.setRecurring(Boolean.parseBoolean(p[4]));
+        e.setRecurrenceType(untext(p[5]));
+        e.setRecurrenceCount(Integer.parseInt(p[6]));
+        e.setSeriesId(Integer.parseInt(p[7]));
+        e.setReminderMinutes(Integer.parseInt(p[8]));
+        return e;
+    }
+
+    // Old format: id,title,desc,start,end,recurring,type,count,seriesId,reminder
+    static Event parseLegacyLine(String line) {
+        String[] parts = line.split(",");
+        Event e = new Event(Integer.parseInt(parts[0]), parts[1], parts[2],
+                LocalDateTime.parse(parts[3]), LocalDateTime.parse(parts[4]));
+        e.setRecurring(Boolean.parseBoolean(parts[5]));
+        e.setRecurrenceType(parts[6]);
+        e.setRecurrenceCount(Integer.parseInt(parts[7]));
+        e.setSeriesId(Integer.parseInt(parts[8]));
+        e.setReminderMinutes(Integer.parseInt(parts[9]));
+        return e;
+    }
+
+    // Rebuilds occurrences of the current S line, stepping the expected times forward
+    private static class SeriesCursor {
+        final int seriesId, baseId, count, reminder;
+        final String type, title, desc;
+        LocalDateTime start, end;
+        int step;
+
+        SeriesCursor(String[] p) {
+            seriesId = Integer.parseInt(p[1]);
+            baseId = Integer.parseInt(p[2]);
+            type = untext(p[3]);
+            count = Integer.parseInt(p[4]);
+            reminder = Integer.parseInt(p[5]);
+            start = LocalDateTime.parse(p[6]);
+            end = LocalDateTime.parse(p[7]);
+            title = untext(p[8]);
+            desc = untext(p[9]);
+        }
+
+        Event occurrence(int delta) {
+            while (step < delta) {
+                start = Recurrence.advance(start, type);
+                end = Recurrence.advance(end, type);
+                step++;
+            }
+            Event e = new Event(baseId + delta, title, desc, start, end);
+            e.setRecurring(true);
+            e.setRecurrenceType(type);
+            e.setRecurrenceCount(count);
+            e.setSeriesId(seriesId);
+            e.setReminderMinutes(reminder);
+            return e;
+        }
+
+        Event override(String[] p) {
+            Event e = occurrence(Integer.parseInt(p[1]));
+            int flags = Integer.parseInt(p[2]);
+            if ((flags & MOVED) != 0) {
+                e.setStart(LocalDateTime.parse(p[3]));
+                e.setEnd(LocalDateTime.parse(p[4]));
+            }
+            if ((flags & TITLE) != 0) e.setTitle(untext(p[5]));
+            if ((flags & DESC) != 0) e.setDescription(untext(p[6]));
+            if ((flags & REMINDER) != 0) e.setReminderMinutes(Integer.parseInt(p[7]));
+            return e;
+        }
+    }
+
+    // Text fields escape the characters the line format uses; %00 stands for null
+    private static String text(String s) {
+        if (s == null) return "%00";
+        if (s.indexOf(',') < 0 && s.indexOf('%') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) return s;
+        return s.replace("%", "%25").replace(",", "%2C").replace("\n", "%0A").replace("\r", "%0D");
+    }
+
+    private static String untext(String s) {
+        if (s.equals("%00")) return null;
+        if (s.indexOf('%') < 0) return s;
+        return s.replace("%2C", ",").replace("%0A", "\n").replace("%0D", "\r").replace("%25", "%");
+    }
+}